@@ -0,0 +1,21 @@
+package com.skillverse.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class EscrowConfig {
+
+    // Workers of the escrow auto-release pipeline; one run submits exactly escrow.release.workers tasks
+    @Bean(name = "escrowExecutor")
+    public ThreadPoolTaskExecutor escrowExecutor(@Value("${escrow.release.workers:4}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix("escrow-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,24 @@
+package com.skillverse.config;
+
+import com.skillverse.dto.EscrowDtos.EscrowReconciliation;
+import com.skillverse.service.EscrowService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+// Total escrow across per-booking holds and the legacy escrow account; exposed over JMX only (org.springframework.boot:type=Endpoint,name=Escrow)
+@Component
+@Endpoint(id = "escrow")
+public class EscrowEndpoint {
+
+    private final EscrowService escrowService;
+
+    public EscrowEndpoint(EscrowService escrowService) {
+        this.escrowService = escrowService;
+    }
+
+    @ReadOperation
+    public EscrowReconciliation reconcile() {
+        return escrowService.reconcile();
+    }
+}
@@ -0,0 +1,209 @@
+package com.skillverse.config;
+
+import com.skillverse.service.IdempotencyService;
+import com.skillverse.service.IdempotencyService.Claim;
+import com.skillverse.service.IdempotencyService.StoredResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes retried POSTs safe: a request to one of {@code idempotency.paths}
+ * that carries an {@code Idempotency-Key} header runs once per user and key,
+ * and repeats are answered from {@link IdempotencyService} without reaching
+ * the controller. Repeats that arrive on this node while the original is
+ * still running wait for it and get its response; a repeat on another node
+ * in that window gets 409 with {@code Retry-After}.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+    private final MeterRegistry meterRegistry;
+    private final List<String> paths;
+    private final long waitTimeoutMs;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyFilter(IdempotencyService idempotencyService,
+                             MeterRegistry meterRegistry,
+                             @Value("${idempotency.paths}") List<String> paths,
+                             @Value("${idempotency.wait-timeout-ms:10000}") long waitTimeoutMs) {
+        this.idempotencyService = idempotencyService;
+        this.meterRegistry = meterRegistry;
+        this.paths = paths;
+        this.waitTimeoutMs = waitTimeoutMs;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null) return true;
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return paths.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            // Rejected further down the chain; nothing to key on
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String key = request.getHeader(HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        CachedBodyRequest cached = new CachedBodyRequest(request);
+        String keyHash = IdempotencyService.hash(authentication.getName(), request.getMethod(), request.getRequestURI(), key);
+        String requestHash = IdempotencyService.hash(request.getQueryString() == null ? "" : request.getQueryString(), cached.body);
+
+        boolean waited = false;
+        while (true) {
+            CompletableFuture<Void> mine = new CompletableFuture<>();
+            CompletableFuture<Void> running = inFlight.putIfAbsent(keyHash, mine);
+            if (running == null) {
+                try {
+                    handle(cached, response, filterChain, keyHash, requestHash);
+                } finally {
+                    inFlight.remove(keyHash, mine);
+                    mine.complete(null);
+                }
+                return;
+            }
+            // Same key already running here: wait for it, then look again (now usually a replay)
+            if (!waited) count("coalesced");
+            waited = true;
+            try {
+                running.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                writeInProgress(response);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                writeInProgress(response);
+                return;
+            } catch (ExecutionException e) {
+                // Never completed exceptionally
+            }
+        }
+    }
+
+    private void handle(CachedBodyRequest request, HttpServletResponse response, FilterChain filterChain,
+                        String keyHash, String requestHash) throws ServletException, IOException {
+        Claim claim = idempotencyService.claim(keyHash, requestHash);
+        switch (claim.outcome()) {
+            case REPLAY -> {
+                count("replayed");
+                StoredResponse stored = claim.response();
+                response.setStatus(stored.status());
+                if (stored.contentType() != null) response.setContentType(stored.contentType());
+                response.setHeader(REPLAYED_HEADER, "true");
+                if (stored.body() != null) {
+                    response.setContentLength(stored.body().length);
+                    response.getOutputStream().write(stored.body());
+                }
+            }
+            case IN_PROGRESS -> {
+                count("in_progress");
+                writeInProgress(response);
+            }
+            case MISMATCH -> {
+                count("mismatch");
+                writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, HEADER + " was already used for a different request");
+            }
+            case STARTED -> {
+                count("started");
+                ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+                boolean stored = false;
+                try {
+                    filterChain.doFilter(request, wrapper);
+                    if (HttpStatus.valueOf(wrapper.getStatus()).is2xxSuccessful()) {
+                        idempotencyService.complete(claim, new StoredResponse(wrapper.getStatus(), wrapper.getContentType(), wrapper.getContentAsByteArray()));
+                        stored = true;
+                    }
+                } finally {
+                    if (!stored) idempotencyService.release(claim);
+                    wrapper.copyBodyToResponse();
+                }
+            }
+        }
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("idempotency.requests", "outcome", outcome).increment();
+    }
+
+    private static void writeInProgress(HttpServletResponse response) throws IOException {
+        response.setHeader("Retry-After", "1");
+        writeError(response, HttpStatus.CONFLICT, "A request with this " + HEADER + " is still being processed");
+    }
+
+    private static void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":" + status.value() + ",\"error\":\"" + status.getReasonPhrase()
+                + "\",\"message\":\"" + message + "\"}");
+    }
+
+    // The body is read up front to hash it, then replayed to the controller
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override public boolean isFinished() { return in.available() == 0; }
+                @Override public boolean isReady() { return true; }
+                @Override public void setReadListener(ReadListener listener) { throw new UnsupportedOperationException(); }
+                @Override public int read() { return in.read(); }
+                @Override public int read(byte[] b, int off, int len) { return in.read(b, off, len); }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
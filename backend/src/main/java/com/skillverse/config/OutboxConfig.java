@@ -0,0 +1,20 @@
+package com.skillverse.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class OutboxConfig {
+
+    // Runs outbox drains woken by commits; one thread, at most one drain queued (see OutboxDispatcher.wake)
+    @Bean(name = "outboxExecutor")
+    public ThreadPoolTaskExecutor outboxExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("outbox-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,24 @@
+package com.skillverse.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class SearchConfig {
+
+    // Runs the per-section lookups of a search in parallel. The queue is bounded
+    // so that under overload a section is skipped (partial result) instead of piling up.
+    @Bean(name = "searchExecutor")
+    public ThreadPoolTaskExecutor searchExecutor(@Value("${search.executor.threads:8}") int threads,
+                                                 @Value("${search.executor.queue:200}") int queue) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queue);
+        executor.setThreadNamePrefix("search-");
+        executor.initialize();
+        return executor;
+    }
+}
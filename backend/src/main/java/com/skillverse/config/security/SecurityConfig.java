@@ -1,5 +1,7 @@
 package com.skillverse.config.security;
 
+import com.skillverse.config.IdempotencyFilter;
+import com.skillverse.controller.MessageController;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -30,6 +32,8 @@ public class SecurityConfig {
 
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
+    @Autowired
+    private IdempotencyFilter idempotencyFilter;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
@@ -56,7 +60,8 @@ public class SecurityConfig {
                                                     "DELETE", 
                                                     "OPTIONS")
                                                 );
-        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type"));
+        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", IdempotencyFilter.HEADER));
+        configuration.setExposedHeaders(List.of(IdempotencyFilter.REPLAYED_HEADER, "Retry-After", MessageController.NEXT_CURSOR_HEADER));
         configuration.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -86,6 +91,7 @@ public class SecurityConfig {
                         .requestMatchers(
                                 new AntPathRequestMatcher("/api/auth/**"),
                                 new AntPathRequestMatcher("/api/search", "GET"),
+                                new AntPathRequestMatcher("/api/search/**", "GET"),
                                 new AntPathRequestMatcher("/api/listings", "GET"),
                                 new AntPathRequestMatcher("/api/listings/**", "GET"),
                                 new AntPathRequestMatcher("/api/users/**", "GET"),
@@ -107,14 +113,18 @@ public class SecurityConfig {
                                 new AntPathRequestMatcher("/api/messages/**"),
                                 new AntPathRequestMatcher("/api/notifications/**"),
                                 new AntPathRequestMatcher("/api/availability/**"),
-                                new AntPathRequestMatcher("/api/reviews/**")
+                                new AntPathRequestMatcher("/api/reviews/**"),
+                                new AntPathRequestMatcher("/api/wallet/**"),
+                                new AntPathRequestMatcher("/api/match")
 
                         ).authenticated()
 
                         // Default fallback: any other request must be authenticated
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // Needs the user from the JWT; repeats of a keyed request stop here
+                .addFilterAfter(idempotencyFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
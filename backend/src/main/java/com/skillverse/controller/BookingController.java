@@ -2,12 +2,14 @@ package com.skillverse.controller;
 
 import com.skillverse.dto.BookingDtos.*;
 import com.skillverse.model.entity.Booking;
+import com.skillverse.model.enums.BookingStatus;
 import com.skillverse.service.BookingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -47,6 +49,21 @@ public class BookingController {
         return ResponseEntity.ok(mapToBookingResponseDto(booking));
     }
 
+    // Batch triage, e.g. {"accept": [12, 15], "reject": [13]}; one outcome per booking, including
+    // INSUFFICIENT_FUNDS for accepts the learner could not pay for
+    @PostMapping("/decisions")
+    public ResponseEntity<BookingDecisionResponse> decideBookings(@RequestBody BookingDecisionRequest request, Authentication authentication) {
+        String teacherEmail = authentication.getName();
+        List<BookingDecisionResult> results = bookingService.decideBatch(teacherEmail, request.accept(), request.reject()).stream()
+                .map(decision -> new BookingDecisionResult(
+                        decision.bookingId(),
+                        decision.outcome(),
+                        decision.message(),
+                        decision.booking() == null ? null : mapToBookingResponseDto(decision.booking())))
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(new BookingDecisionResponse(results));
+    }
+
     @PostMapping("/{id}/complete")
     public ResponseEntity<BookingResponseDto> completeBooking(@PathVariable Long id, Authentication authentication) {
         String userEmail = authentication.getName();
@@ -70,6 +87,23 @@ public class BookingController {
         return ResponseEntity.ok(dtos);
     }
 
+    // Keyset-paginated inboxes, e.g. /api/bookings/sent/page?status=PENDING&status=CONFIRMED&size=20 then &cursor=<nextCursor>
+    @GetMapping("/sent/page")
+    public ResponseEntity<BookingPageResponse> getSentPage(Authentication authentication,
+                                                           @RequestParam(value = "status", required = false) Set<BookingStatus> statuses,
+                                                           @RequestParam(value = "cursor", required = false) Long cursor,
+                                                           @RequestParam(value = "size", defaultValue = "${bookings.page.default-size:20}") int size) {
+        return ResponseEntity.ok(bookingService.getSentPage(authentication.getName(), statuses, cursor, size));
+    }
+
+    @GetMapping("/received/page")
+    public ResponseEntity<BookingPageResponse> getReceivedPage(Authentication authentication,
+                                                               @RequestParam(value = "status", required = false) Set<BookingStatus> statuses,
+                                                               @RequestParam(value = "cursor", required = false) Long cursor,
+                                                               @RequestParam(value = "size", defaultValue = "${bookings.page.default-size:20}") int size) {
+        return ResponseEntity.ok(bookingService.getReceivedPage(authentication.getName(), statuses, cursor, size));
+    }
+
     @GetMapping("/received")
     public ResponseEntity<List<BookingResponseDto>> getReceivedRequests(Authentication authentication) {
         List<Booking> bookings = bookingService.getReceivedRequests(authentication.getName());
@@ -0,0 +1,61 @@
+package com.skillverse.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET for public read endpoints. Controllers compute a cheap
+ * validator (ETag, optionally Last-Modified) from scalar queries; the body
+ * supplier is only invoked when the client's copy is stale, so a 304 never
+ * loads entities. Responses may be reused for a short, configurable max-age
+ * and must be revalidated after it; only anonymous endpoints are marked public
+ * so that shared caches never serve what requires a login.
+ */
+@Component
+public class ConditionalResponses {
+
+    private final CacheControl publicCache;
+    private final CacheControl privateCache;
+
+    public ConditionalResponses(@Value("${http.cache.max-age-seconds:60}") long maxAgeSeconds) {
+        this.publicCache = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic().mustRevalidate();
+        this.privateCache = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePrivate().mustRevalidate();
+    }
+
+    public <T> ResponseEntity<T> ok(WebRequest request, String etag, Supplier<T> body) {
+        return respond(request, etag, null, publicCache, body);
+    }
+
+    public <T> ResponseEntity<T> ok(WebRequest request, String etag, Instant lastModified, Supplier<T> body) {
+        return respond(request, etag, lastModified, publicCache, body);
+    }
+
+    /** For endpoints behind authentication: browsers may revalidate, shared caches must not store. */
+    public <T> ResponseEntity<T> okPrivate(WebRequest request, String etag, Supplier<T> body) {
+        return respond(request, etag, null, privateCache, body);
+    }
+
+    private <T> ResponseEntity<T> respond(WebRequest request, String etag, Instant lastModified,
+                                          CacheControl cacheControl, Supplier<T> body) {
+        // Sets the ETag / Last-Modified headers and, on a match, the 304 status
+        boolean notModified = lastModified == null
+                ? request.checkNotModified(etag)
+                : request.checkNotModified(etag, lastModified.toEpochMilli());
+        if (notModified) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().cacheControl(cacheControl).body(body.get());
+    }
+
+    static long millis(Instant instant) {
+        return instant == null ? 0L : instant.toEpochMilli();
+    }
+}
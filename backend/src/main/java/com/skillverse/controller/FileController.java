@@ -2,6 +2,7 @@ package com.skillverse.controller;
 
 import com.skillverse.model.entity.User;
 import com.skillverse.repository.UserRepository;
+import com.skillverse.service.ConcurrencyRetry;
 import com.skillverse.service.FileStorageService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
@@ -16,6 +17,7 @@ import org.springframework.web.multipart.MultipartFile;
 import java.net.MalformedURLException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Instant;
 
 @Controller
 @RequestMapping("/api/files")
@@ -23,6 +25,7 @@ public class FileController {
 
     @Autowired private FileStorageService storageService;
     @Autowired private UserRepository userRepository;
+    @Autowired private ConcurrencyRetry concurrencyRetry;
 
     @PostMapping("/upload/avatar")
     @ResponseBody // Important: This makes it return JSON
@@ -31,9 +34,12 @@ public class FileController {
 
         // Update the user's avatarUrl in the database
         String userEmail = authentication.getName();
-        User user = userRepository.findByEmail(userEmail).orElseThrow();
-        user.setAvatarUrl(fileUrl);
-        userRepository.save(user);
+        concurrencyRetry.inTransaction("profile.avatar", status -> {
+            User user = userRepository.findByEmail(userEmail).orElseThrow();
+            user.setAvatarUrl(fileUrl);
+            user.setProfileUpdatedAt(Instant.now());
+            return userRepository.save(user);
+        });
 
         return ResponseEntity.ok(fileUrl);
     }
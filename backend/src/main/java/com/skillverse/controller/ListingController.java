@@ -3,6 +3,7 @@ package com.skillverse.controller;
 
 import com.skillverse.dto.ListingDtos.*;
 import com.skillverse.model.entity.Listing;
+import com.skillverse.search.ListingFacetIndex;
 import com.skillverse.service.ListingService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +11,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import java.math.BigDecimal;
+import java.util.HashSet;
 import java.util.List;
 import com.skillverse.dto.ListingDtos.*;
 
@@ -19,15 +23,44 @@ public class ListingController {
 
     @Autowired
     private ListingService listingService;
+    @Autowired
+    private ConditionalResponses conditionalResponses;
 
     @GetMapping
-    public List<ListingDto> getAllListings() {
-        return listingService.getAllListings();
+    public ResponseEntity<List<ListingDto>> getAllListings(WebRequest request) {
+        return conditionalResponses.ok(request, listingService.getCatalogEtag(), listingService::getAllListings);
+    }
+
+    // Keyset-paginated catalog, e.g. /api/listings/page?size=20 then ?cursor=<nextCursor>&size=20
+    @GetMapping("/page")
+    public ResponseEntity<ListingPageResponse> getListingPage(@RequestParam(value = "cursor", required = false) Long cursor,
+                                                              @RequestParam(value = "size", defaultValue = "${listings.page.default-size:20}") int size) {
+        return ResponseEntity.ok(listingService.getListingPage(cursor, size));
+    }
+
+    // Faceted browse, e.g. /api/listings/browse?format=Course&minPrice=20&maxPrice=100&duration=31-60
+    @GetMapping("/browse")
+    public ResponseEntity<BrowseListingsResponse> browse(@RequestParam(value = "format", required = false) List<String> formats,
+                                                         @RequestParam(value = "minPrice", required = false) BigDecimal minPrice,
+                                                         @RequestParam(value = "maxPrice", required = false) BigDecimal maxPrice,
+                                                         @RequestParam(value = "duration", required = false) List<String> durations,
+                                                         @RequestParam(value = "cursor", required = false) Long cursor,
+                                                         @RequestParam(value = "size", defaultValue = "20") int size) {
+        if (!listingService.isBrowseReady()) {
+            // The facet index is still being built after startup; its counts would be wrong
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "5").build();
+        }
+        ListingFacetIndex.Query query = new ListingFacetIndex.Query(
+                formats == null ? null : new HashSet<>(formats),
+                minPrice,
+                maxPrice,
+                durations == null ? null : new HashSet<>(durations));
+        return ResponseEntity.ok(listingService.browse(query, cursor, size));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ListingDto> getListingById(@PathVariable Long id) {
-        return ResponseEntity.ok(listingService.getListingById(id));
+    public ResponseEntity<ListingDto> getListingById(@PathVariable Long id, WebRequest request) {
+        return conditionalResponses.ok(request, listingService.getListingEtag(id), () -> listingService.getListingById(id));
     }
 
     @PostMapping
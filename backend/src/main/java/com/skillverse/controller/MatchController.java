@@ -0,0 +1,25 @@
+package com.skillverse.controller;
+
+import com.skillverse.dto.MatchDtos.MatchDto;
+import com.skillverse.search.SkillMatchIndex.Mode;
+import com.skillverse.service.SkillMatchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/match")
+public class MatchController {
+
+    @Autowired private SkillMatchService skillMatchService;
+
+    @GetMapping
+    public ResponseEntity<List<MatchDto>> match(Authentication authentication,
+                                                @RequestParam(value = "mode", defaultValue = "RECIPROCAL") Mode mode,
+                                                @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return ResponseEntity.ok(skillMatchService.findMatches(authentication.getName(), mode, limit));
+    }
+}
@@ -15,6 +15,8 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/messages")
 public class MessageController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final MessageService messageService;
     private final UserRepository userRepository;
 
@@ -34,18 +36,32 @@ public class MessageController {
         return ResponseEntity.ok(MessageService.toDto(saved));
     }
 
+    // Newest messages, oldest first; when older ones exist, X-Next-Cursor holds the value for ?before= to load them
     @GetMapping("/with/{otherUserId}")
-    public List<MessageResponse> conversation(Principal principal, @PathVariable Long otherUserId) {
+    public ResponseEntity<List<MessageResponse>> conversation(Principal principal, @PathVariable Long otherUserId,
+                                                              @RequestParam(value = "before", required = false) Long before,
+                                                              @RequestParam(value = "limit", defaultValue = "${messages.page.default-size:50}") int limit) {
         Long me = currentUserId(principal);
-        return messageService.conversation(me, otherUserId).stream()
-                .map(MessageService::toDto).collect(Collectors.toList());
+        MessagePage page = messageService.conversationPage(me, otherUserId, before, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor().toString());
+        }
+        return response.body(page.messages());
     }
 
+    // Most recent conversations first; X-Next-Cursor, when present, is the ?cursor= for the next page
     @GetMapping("/conversations")
-    public List<MessageResponse> lastPerConversation(Principal principal) {
+    public ResponseEntity<List<ConversationSummaryResponse>> conversations(Principal principal,
+                                                                           @RequestParam(value = "cursor", required = false) Long cursor,
+                                                                           @RequestParam(value = "size", defaultValue = "${messages.conversations.default-size:50}") int size) {
         Long me = currentUserId(principal);
-        return messageService.lastPerConversation(me).stream()
-                .map(MessageService::toDto).collect(Collectors.toList());
+        ConversationPage page = messageService.conversations(me, cursor, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor().toString());
+        }
+        return response.body(page.conversations());
     }
 
     @GetMapping("/unread-count")
@@ -54,6 +70,14 @@ public class MessageController {
         return Map.of("count", messageService.unreadCount(me));
     }
 
+    // Marks the conversation read through message upToId, e.g. the newest one on screen
+    @PostMapping("/with/{otherUserId}/read")
+    public Map<String, Long> markConversationRead(Principal principal, @PathVariable Long otherUserId,
+                                                  @RequestParam("upTo") Long upTo) {
+        Long me = currentUserId(principal);
+        return Map.of("marked", (long) messageService.markConversationRead(me, otherUserId, upTo));
+    }
+
     @PostMapping("/{id}/read")
     public ResponseEntity<?> markRead(Principal principal, @PathVariable Long id) {
         Long me = currentUserId(principal);
@@ -36,6 +36,12 @@ public class NotificationController {
         return Map.of("count", notificationService.unreadCount(currentUserId(p)));
     }
 
+    // Marks every notification up to and including upTo read
+    @PostMapping("/read")
+    public Map<String, Long> markReadUpTo(Principal p, @RequestParam("upTo") Long upTo) {
+        return Map.of("marked", (long) notificationService.markReadUpTo(currentUserId(p), upTo));
+    }
+
     @PostMapping("/{id}/read")
     public ResponseEntity<?> markRead(Principal p, @PathVariable Long id) {
         notificationService.markRead(id, currentUserId(p));
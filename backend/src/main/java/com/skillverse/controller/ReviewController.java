@@ -16,6 +16,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import com.skillverse.dto.ReviewDtos.ReviewResponse;
 
 import java.util.List;
@@ -28,6 +29,7 @@ public class ReviewController {
     @Autowired private ReviewRepository reviewRepository;
     @Autowired private BookingRepository bookingRepository;
     @Autowired private UserRepository userRepository;
+    @Autowired private ConditionalResponses conditionalResponses;
 
     @PostMapping
     public ResponseEntity<ReviewResponse> createReview(@Valid @RequestBody ReviewDtos.CreateReviewRequest request, Authentication authentication) {
@@ -61,12 +63,16 @@ public class ReviewController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<ReviewResponse>> getReviewsForUser(@PathVariable Long userId) {
+    public ResponseEntity<List<ReviewResponse>> getReviewsForUser(@PathVariable Long userId, WebRequest request) {
         if (!userRepository.existsById(userId)) {
             throw new ResourceNotFoundException("User", "id", userId);
         }
-        List<Review> reviews = reviewRepository.findByRevieweeId(userId);
-        return ResponseEntity.ok(reviews.stream().map(this::mapToResponse).collect(Collectors.toList()));
+        ReviewRepository.ReviewsVersion version = reviewRepository.findVersionByRevieweeId(userId);
+        String etag = "reviews-" + userId + "-" + version.getCount() + "-" + version.getMaxId()
+                + "-" + ConditionalResponses.millis(version.getReviewersUpdatedAt());
+
+        return conditionalResponses.okPrivate(request, etag, () -> reviewRepository.findByRevieweeId(userId).stream()
+                .map(this::mapToResponse).collect(Collectors.toList()));
     }
 
     private ReviewResponse mapToResponse(Review review) {
@@ -1,7 +1,11 @@
 package com.skillverse.controller;
 
+import com.skillverse.dto.SearchDtos.SearchRequest;
 import com.skillverse.dto.SearchDtos.SearchResponseDto;
+import com.skillverse.dto.SearchDtos.Section;
+import com.skillverse.dto.SearchDtos.SuggestResponseDto;
 import com.skillverse.service.SearchService;
+import com.skillverse.service.SuggestionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -11,9 +15,23 @@ import org.springframework.web.bind.annotation.*;
 public class SearchController {
 
     @Autowired private SearchService searchService;
+    @Autowired private SuggestionService suggestionService;
 
     @GetMapping
-    public ResponseEntity<SearchResponseDto> search(@RequestParam("q") String query) {
-        return ResponseEntity.ok(searchService.search(query));
+    public ResponseEntity<SearchResponseDto> search(@RequestParam("q") String query,
+                                                    @RequestParam(value = "fuzzy", defaultValue = "false") boolean fuzzy,
+                                                    @RequestParam(value = "section", defaultValue = "ALL") Section section,
+                                                    @RequestParam(value = "usersCursor", required = false) String usersCursor,
+                                                    @RequestParam(value = "listingsCursor", required = false) String listingsCursor,
+                                                    @RequestParam(value = "usersLimit", defaultValue = "20") int usersLimit,
+                                                    @RequestParam(value = "listingsLimit", defaultValue = "20") int listingsLimit) {
+        SearchRequest request = new SearchRequest(query, fuzzy, section, usersCursor, listingsCursor, usersLimit, listingsLimit);
+        return ResponseEntity.ok(searchService.search(request));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<SuggestResponseDto> suggest(@RequestParam("prefix") String prefix,
+                                                      @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(suggestionService.suggest(prefix, limit));
     }
 }
\ No newline at end of file
@@ -1,13 +1,20 @@
 package com.skillverse.controller;
 
 import com.skillverse.dto.UserDtos.*;
+import com.skillverse.event.UserProfileChangedEvent;
 import com.skillverse.exception.ResourceNotFoundException;
 import com.skillverse.model.entity.User;
 import com.skillverse.repository.UserRepository;
+import com.skillverse.service.ConcurrencyRetry;
+import com.skillverse.service.LedgerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
 
 @RestController
 @RequestMapping("/api/users")
@@ -15,6 +22,17 @@ public class UserController {
 
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ConditionalResponses conditionalResponses;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private ConcurrencyRetry concurrencyRetry;
 
     @GetMapping("/me")
     public ResponseEntity<UserProfileDto> getCurrentUserProfile(Authentication authentication) {
@@ -26,25 +44,36 @@ public class UserController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<PublicProfileDto> getUserProfileById(@PathVariable Long id) {
-        User user = userRepository.findById(id)
+    public ResponseEntity<PublicProfileDto> getUserProfileById(@PathVariable Long id, WebRequest request) {
+        UserRepository.ProfileVersion version = userRepository.findProfileVersionById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+        String etag = "user-" + id + "-" + ConditionalResponses.millis(version.getProfileUpdatedAt());
 
-        return ResponseEntity.ok(mapToPublicProfileDto(user));
+        return conditionalResponses.ok(request, etag, version.getProfileUpdatedAt(), () -> {
+            User user = userRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
+            return mapToPublicProfileDto(user);
+        });
     }
 
     @PatchMapping("/me")
     public ResponseEntity<UserProfileDto> updateCurrentUserProfile(@RequestBody UpdateProfileRequest request, Authentication authentication) {
         String userEmail = authentication.getName();
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
+        // The user row is versioned and also bumped by debits; re-apply the edit if one commits first
+        User updatedUser = concurrencyRetry.inTransaction("profile.update", status -> {
+            User user = userRepository.findByEmail(userEmail)
+                    .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
 
-        if (request.name() != null) user.setName(request.name());
-        if (request.bio() != null) user.setBio(request.bio());
-        if (request.skillsOffered() != null) user.setSkillsOffered(request.skillsOffered());
-        if (request.skillsWanted() != null) user.setSkillsWanted(request.skillsWanted());
+            if (request.name() != null) user.setName(request.name());
+            if (request.bio() != null) user.setBio(request.bio());
+            if (request.skillsOffered() != null) user.setSkillsOffered(request.skillsOffered());
+            if (request.skillsWanted() != null) user.setSkillsWanted(request.skillsWanted());
+            user.setProfileUpdatedAt(Instant.now());
 
-        User updatedUser = userRepository.save(user);
+            User saved = userRepository.save(user);
+            eventPublisher.publishEvent(new UserProfileChangedEvent(saved));
+            return saved;
+        });
 
         return ResponseEntity.ok(mapToUserProfileDto(updatedUser));
     }
@@ -56,7 +85,7 @@ public class UserController {
                 user.getEmail(),
                 user.getBio(),
                 user.getAvatarUrl(),
-                user.getTokenBalance(),
+                ledgerService.balanceOf(user.getId()),
                 user.getSkillsOffered(),
                 user.getSkillsWanted()
         );
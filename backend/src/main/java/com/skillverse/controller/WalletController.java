@@ -0,0 +1,35 @@
+package com.skillverse.controller;
+
+import com.skillverse.dto.WalletDtos.MonthlyTotalDto;
+import com.skillverse.dto.WalletDtos.WalletStatementResponse;
+import com.skillverse.service.WalletService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/wallet")
+public class WalletController {
+
+    private final WalletService walletService;
+
+    public WalletController(WalletService walletService) {
+        this.walletService = walletService;
+    }
+
+    // Statement, newest first, e.g. /api/wallet/transactions?size=20 then &cursor=<nextCursor>
+    @GetMapping("/transactions")
+    public ResponseEntity<WalletStatementResponse> getStatement(Authentication authentication,
+                                                                @RequestParam(value = "cursor", required = false) Long cursor,
+                                                                @RequestParam(value = "size", defaultValue = "${wallet.page.default-size:20}") int size) {
+        return ResponseEntity.ok(walletService.getStatement(authentication.getName(), cursor, size));
+    }
+
+    @GetMapping("/monthly")
+    public ResponseEntity<List<MonthlyTotalDto>> getMonthlyTotals(Authentication authentication,
+                                                                  @RequestParam(value = "months", defaultValue = "12") int months) {
+        return ResponseEntity.ok(walletService.getMonthlyTotals(authentication.getName(), Math.min(months, 120)));
+    }
+}
@@ -2,6 +2,7 @@ package com.skillverse.dto;
 import java.math.BigDecimal;
 import com.skillverse.model.enums.BookingStatus;
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class BookingDtos {
 
@@ -22,4 +23,33 @@ public class BookingDtos {
             LocalDateTime bookingTime,
             String sessionRoomId
     ) {}
-}
\ No newline at end of file
+
+    // One inbox page, newest first; nextCursor is null on the last page
+    public record BookingPageResponse(
+            List<BookingResponseDto> bookings,
+            Long nextCursor
+    ) {}
+
+    // Teacher's batch triage: pending bookings to accept and to reject in one call
+    public record BookingDecisionRequest(List<Long> accept, List<Long> reject) {}
+
+    public enum DecisionOutcome {
+        ACCEPTED,
+        REJECTED,
+        // Asked to accept, but the learner could not pay; the booking is rejected
+        INSUFFICIENT_FUNDS,
+        NOT_FOUND,
+        // Not this teacher's booking, no longer pending, or listed twice; left unchanged
+        NOT_ALLOWED
+    }
+
+    // booking is null when nothing was changed
+    public record BookingDecisionResult(
+            Long bookingId,
+            DecisionOutcome outcome,
+            String message,
+            BookingResponseDto booking
+    ) {}
+
+    public record BookingDecisionResponse(List<BookingDecisionResult> results) {}
+}
@@ -0,0 +1,16 @@
+package com.skillverse.dto;
+
+import java.math.BigDecimal;
+
+public class EscrowDtos {
+
+    // Total escrow = per-booking holds + what is left on the legacy escrow account
+    public record EscrowReconciliation(
+            long heldCount,
+            BigDecimal heldAmount,
+            BigDecimal legacyAccountBalance,
+            BigDecimal totalEscrow,
+            BigDecimal openBookingsAmount,
+            BigDecimal difference
+    ) {}
+}
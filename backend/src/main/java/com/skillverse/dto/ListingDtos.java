@@ -1,6 +1,7 @@
 package com.skillverse.dto;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 public class ListingDtos {
 //    public record ListingDto(Long id, String title, String description, BigDecimal tokenPrice, Long teacherId, String teacherName) {}
@@ -19,6 +20,26 @@ public class ListingDtos {
             double average,
             BigDecimal min,
             BigDecimal max,
-            long count
+            long count,
+            BigDecimal median,
+            BigDecimal p90
     ) {}
-}
\ No newline at end of file
+
+    // One catalog page, newest first; nextCursor is null on the last page
+    public record ListingPageResponse(
+            List<ListingDto> listings,
+            Long nextCursor
+    ) {}
+
+    // Faceted browsing: one page of listings plus counts for every facet value
+    public record FacetCountDto(String value, int count) {}
+
+    public record BrowseListingsResponse(
+            List<ListingDto> listings,
+            int total,
+            Long nextCursor,
+            List<FacetCountDto> formats,
+            List<FacetCountDto> prices,
+            List<FacetCountDto> durations
+    ) {}
+}
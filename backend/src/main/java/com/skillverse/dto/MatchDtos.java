@@ -0,0 +1,15 @@
+package com.skillverse.dto;
+
+import com.skillverse.dto.UserDtos.PublicProfileDto;
+
+import java.util.List;
+
+public class MatchDtos {
+
+    public record MatchDto(
+            PublicProfileDto user,
+            List<String> canTeachYou,
+            List<String> wantsFromYou,
+            int score
+    ) {}
+}
@@ -2,6 +2,7 @@
 package com.skillverse.dto;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class MessageDtos {
     public record SendRequest(Long recipientId, Long bookingId, String content) {}
@@ -14,4 +15,35 @@ public class MessageDtos {
             LocalDateTime createdAt,
             LocalDateTime readAt
     ) {}
+
+    // Pushed to the other participant when the reader marks the conversation read through upToId
+    public record ReadReceipt(
+            Long readerId,
+            Long upToId,
+            int count,
+            LocalDateTime readAt
+    ) {}
+
+    // One inbox row: the conversation's latest message (content is a snippet) and the caller's unread count in it
+    public record ConversationSummaryResponse(
+            Long id,
+            Long senderId,
+            Long recipientId,
+            Long otherUserId,
+            String content,
+            LocalDateTime createdAt,
+            long unreadCount
+    ) {}
+
+    // One page of the inbox, most recent first; nextCursor continues it, null on the last page
+    public record ConversationPage(
+            List<ConversationSummaryResponse> conversations,
+            Long nextCursor
+    ) {}
+
+    // One page of a conversation, oldest first; nextCursor (the oldest id) fetches the page before it, null at the start
+    public record MessagePage(
+            List<MessageResponse> messages,
+            Long nextCursor
+    ) {}
 }
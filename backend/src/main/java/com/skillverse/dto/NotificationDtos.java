@@ -6,4 +6,7 @@ public class NotificationDtos {
     public record NotificationResponse(Long id, String type, String title, String body,
                                        Instant createdAt, Instant readAt,
                                        Long bookingId, Long fromUserId) {}
+
+    // Pushed to the owner's other sessions when notifications through upToId are marked read
+    public record ReadReceipt(Long upToId, int count, Instant readAt) {}
 }
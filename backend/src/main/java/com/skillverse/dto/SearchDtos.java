@@ -5,8 +5,37 @@ import com.skillverse.dto.UserDtos.PublicProfileDto;
 import java.util.List;
 
 public class SearchDtos {
+
+    public enum Section { ALL, USERS, LISTINGS }
+
+    // Each section pages independently: pass back its next*Cursor to get more of just that section
+    public record SearchRequest(
+            String query,
+            boolean fuzzy,
+            Section section,
+            String usersCursor,
+            String listingsCursor,
+            int usersLimit,
+            int listingsLimit
+    ) {
+        public boolean includes(Section s) {
+            return section == null || section == Section.ALL || section == s;
+        }
+    }
+
     public record SearchResponseDto(
             List<PublicProfileDto> users,
-            List<ListingDto> listings
+            List<ListingDto> listings,
+            String nextUsersCursor,
+            String nextListingsCursor,
+            boolean partial // true when a section missed its deadline, or the search index was still building
+    ) {}
+
+    // Typeahead: completions for listing titles and for skills, each heaviest first
+    public record SuggestionDto(String text, int count) {}
+
+    public record SuggestResponseDto(
+            List<SuggestionDto> listings,
+            List<SuggestionDto> skills
     ) {}
-}
\ No newline at end of file
+}
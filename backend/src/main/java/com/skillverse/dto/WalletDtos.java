@@ -0,0 +1,37 @@
+package com.skillverse.dto;
+
+import com.skillverse.model.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class WalletDtos {
+
+    // One ledger entry with the account balance right after it
+    public record StatementEntryDto(
+            Long id,
+            TransactionType type,
+            BigDecimal amount,
+            BigDecimal balanceAfter,
+            String description,
+            Long bookingId,
+            LocalDateTime createdAt
+    ) {}
+
+    // Current balance and one page of entries, newest first; nextCursor is null on the last page
+    public record WalletStatementResponse(
+            BigDecimal balance,
+            List<StatementEntryDto> entries,
+            Long nextCursor
+    ) {}
+
+    // month is yyyy-MM
+    public record MonthlyTotalDto(
+            String month,
+            BigDecimal credits,
+            BigDecimal debits,
+            BigDecimal net,
+            long entries
+    ) {}
+}
@@ -0,0 +1,12 @@
+package com.skillverse.event;
+
+import com.skillverse.model.enums.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a booking moves to a new status. Listeners run after the
+ * change commits; the escrow release timer uses it to schedule newly
+ * confirmed bookings and to cancel ones completed or disputed early.
+ */
+public record BookingStatusChangedEvent(Long bookingId, BookingStatus status, LocalDateTime bookingTime) {}
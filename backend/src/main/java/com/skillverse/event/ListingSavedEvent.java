@@ -0,0 +1,10 @@
+package com.skillverse.event;
+
+import com.skillverse.model.entity.Listing;
+
+/**
+ * Published after a listing is created or changed. In-memory read models
+ * (search index, suggestions, facets, ...) listen for it instead of every
+ * write path calling each of them directly.
+ */
+public record ListingSavedEvent(Listing listing) {}
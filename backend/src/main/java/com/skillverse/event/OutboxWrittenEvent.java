@@ -0,0 +1,7 @@
+package com.skillverse.event;
+
+/**
+ * Published when an outbox row is written. The dispatcher listens for it
+ * after commit, so deliveries start right away instead of on the next poll.
+ */
+public record OutboxWrittenEvent() {}
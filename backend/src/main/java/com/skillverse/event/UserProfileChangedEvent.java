@@ -0,0 +1,9 @@
+package com.skillverse.event;
+
+import com.skillverse.model.entity.User;
+
+/**
+ * Published after a user signs up or edits the public parts of their profile
+ * (name, bio, skills).
+ */
+public record UserProfileChangedEvent(User user) {}
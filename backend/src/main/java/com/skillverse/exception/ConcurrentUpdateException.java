@@ -0,0 +1,16 @@
+package com.skillverse.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when an operation kept losing to concurrent updates of the same
+ * rows and gave up after its retries. The client may safely try again.
+ * Results in a 409 Conflict response.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConcurrentUpdateException extends RuntimeException {
+    public ConcurrentUpdateException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
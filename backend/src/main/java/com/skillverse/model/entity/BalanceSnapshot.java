@@ -0,0 +1,48 @@
+package com.skillverse.model.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * An account's balance including every ledger entry up to and including
+ * {@code lastTransactionId}. Snapshots are only ever inserted; the newest one
+ * per user is the starting point for balance reads.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "balance_snapshots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_balance_snapshots_user_tx", columnNames = {"user_id", "last_transaction_id"})
+})
+public class BalanceSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    @NotNull
+    @Column(precision = 19, scale = 2)
+    private BigDecimal balance;
+
+    @NotNull
+    @Column(name = "last_transaction_id")
+    private Long lastTransactionId;
+
+    @NotNull
+    private Instant createdAt = Instant.now();
+
+    public BalanceSnapshot(User user, BigDecimal balance, Long lastTransactionId) {
+        this.user = user;
+        this.balance = balance;
+        this.lastTransactionId = lastTransactionId;
+    }
+}
@@ -9,6 +9,14 @@ import java.util.UUID;
 
 @Entity
 @Data
+@Table(indexes = {
+        @Index(name = "idx_booking_status_id", columnList = "status,id"),
+        // Escrow release: due CONFIRMED bookings and the oldest one (release lag)
+        @Index(name = "idx_booking_status_booking_time", columnList = "status,bookingTime"),
+        // Inbox pages: a learner's (or a listing's) bookings by status, newest first
+        @Index(name = "idx_booking_learner_status_id", columnList = "learner_id,status,id"),
+        @Index(name = "idx_booking_listing_status_id", columnList = "listing_id,status,id")
+})
 public class Booking {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -34,6 +42,11 @@ public class Booking {
     @Column(unique = true)
     private String sessionRoomId;
 
+    // Optimistic lock: concurrent accept/complete/dispute/auto-release of one booking cannot overwrite each other's status
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     @PrePersist
     protected void onCreate() {
         if (this.sessionRoomId == null) {
@@ -0,0 +1,55 @@
+package com.skillverse.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * One user's view of one conversation: its latest message and how many
+ * messages to that user are still unread. Kept current by
+ * {@code MessageService} on send and read, so the inbox is a range read
+ * over one owner's rows instead of a GROUP BY over their messages.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@IdClass(ConversationSummary.Key.class)
+@Table(name = "conversation_summaries", indexes = {
+        // Inbox pages: one owner's conversations, most recent first
+        @Index(name = "idx_conversation_summaries_owner_last", columnList = "owner_id,last_message_id")
+})
+public class ConversationSummary {
+
+    @Data
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private Long ownerId;
+        private Long otherUserId;
+    }
+
+    @Id
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Id
+    @Column(name = "other_user_id")
+    private Long otherUserId;
+
+    @Column(name = "last_message_id", nullable = false)
+    private Long lastMessageId;
+
+    @Column(name = "last_sender_id", nullable = false)
+    private Long lastSenderId;
+
+    @Column(nullable = false, length = 120)
+    private String snippet;
+
+    @Column(name = "last_message_at", nullable = false)
+    private LocalDateTime lastMessageAt;
+
+    @Column(name = "unread_count", nullable = false)
+    private long unreadCount;
+}
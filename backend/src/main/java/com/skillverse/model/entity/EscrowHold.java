@@ -0,0 +1,55 @@
+package com.skillverse.model.entity;
+
+import com.skillverse.model.enums.EscrowHoldStatus;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Tokens held in escrow for one booking. Each booking has its own row, so
+ * accepting and releasing bookings never contend on a shared escrow balance;
+ * the platform's escrow total is the sum of HELD rows.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "escrow_holds", indexes = {
+        @Index(name = "idx_escrow_holds_status", columnList = "status")
+})
+public class EscrowHold {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booking_id", unique = true)
+    private Booking booking;
+
+    @NotNull
+    @Column(precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    private EscrowHoldStatus status = EscrowHoldStatus.HELD;
+
+    @NotNull
+    private Instant createdAt = Instant.now();
+
+    private Instant releasedAt;
+
+    // Bumped by the conditional release update too, so a stale copy of a hold cannot be written back
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
+    public EscrowHold(Booking booking, BigDecimal amount) {
+        this.booking = booking;
+        this.amount = amount;
+    }
+}
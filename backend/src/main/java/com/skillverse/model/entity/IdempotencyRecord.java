@@ -0,0 +1,46 @@
+package com.skillverse.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * The stored outcome of one request sent with an {@code Idempotency-Key}.
+ * The row is keyed by a hash of user, method, path and key, so it has a
+ * fixed size whatever the client sends. It is written when the request
+ * starts ({@code status} null while in progress) and completed with the
+ * response, which repeats of the request are then answered from until
+ * {@code expiresAt}.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "idempotency_records", indexes = {
+        @Index(name = "idx_idempotency_records_expires_at", columnList = "expires_at")
+})
+public class IdempotencyRecord {
+
+    // SHA-256 of user, method, path and Idempotency-Key, hex
+    @Id
+    @Column(name = "key_hash", length = 64)
+    private String keyHash;
+
+    // SHA-256 of the query string and body, to refuse a key reused for a different request
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash;
+
+    @Column(name = "locked_at", nullable = false)
+    private Instant lockedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    private Integer status;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    private byte[] body;
+}
@@ -0,0 +1,29 @@
+package com.skillverse.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Which node may run a scheduled job, and until when. A node takes the lease
+ * when it is free or expired (see {@code JobLeaseRepository.tryAcquire}), so a
+ * crashed holder blocks the job for at most one lease period.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "job_leases")
+public class JobLease {
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(length = 100)
+    private String owner;
+
+    private Instant leasedUntil;
+
+    private Instant lastCompletedAt;
+}
@@ -0,0 +1,24 @@
+package com.skillverse.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How far through the ledger a derived table has been folded: every entry up to {@code lastTransactionId}.
+ * A one-off backfill's row only records that it has run.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "ledger_watermarks")
+public class LedgerWatermark {
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(name = "last_transaction_id", nullable = false)
+    private long lastTransactionId;
+}
@@ -7,11 +7,19 @@ import java.math.BigDecimal;
 
 @Entity
 @Data
+@Table(indexes = {
+        @Index(name = "idx_listing_teacher_id", columnList = "teacher_id")
+})
 public class Listing {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Bumped on every update; part of the listing's ETag
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     @NotNull
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "teacher_id")
@@ -6,7 +6,8 @@ import java.time.LocalDateTime;
 
 @Entity(name = "Message")
 @Table(name = "messages", indexes = {
-        @Index(name = "idx_messages_conversation", columnList = "conversation_key"),
+        // Conversation history pages: newest first by id within one conversation
+        @Index(name = "idx_messages_conversation_id", columnList = "conversation_key,id"),
         @Index(name = "idx_messages_recipient_unread", columnList = "recipient_id,read_at"),
         @Index(name = "idx_messages_createdAt", columnList = "created_at")
 })
@@ -0,0 +1,28 @@
+package com.skillverse.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/** One backend node. Nodes with a recent heartbeat are live and share sharded work. */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "node_heartbeats", indexes = {
+        @Index(name = "idx_node_heartbeats_heartbeat_at", columnList = "heartbeat_at")
+})
+public class NodeHeartbeat {
+    @Id
+    @Column(name = "node_id", length = 100)
+    private String nodeId;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "heartbeat_at")
+    private Instant heartbeatAt;
+}
@@ -56,7 +56,8 @@ public class Notification {
 
     @PrePersist
     public void prePersist() {
-        this.createdAt = Instant.now();
+        // Kept when set: outbox deliveries carry the time of the change that caused them
+        if (this.createdAt == null) this.createdAt = Instant.now();
     }
 
     public Long getId() {
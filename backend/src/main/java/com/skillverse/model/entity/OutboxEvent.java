@@ -0,0 +1,57 @@
+package com.skillverse.model.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A side effect (notification, WebSocket push) recorded in the same
+ * transaction as the change that caused it. The outbox dispatcher delivers
+ * rows after commit and deletes them, so nothing is delivered for work that
+ * rolled back, and nothing committed is lost if delivery fails.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_available", columnList = "available_at,id")
+})
+public class OutboxEvent {
+
+    public enum Type {
+        NOTIFICATION,
+        PUSH
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private Type type;
+
+    // JSON; see OutboxService for the payload of each type
+    @NotNull
+    @Column(columnDefinition = "text")
+    private String payload;
+
+    @NotNull
+    private Instant createdAt = Instant.now();
+
+    // Not dispatched before this; pushed back after a failed attempt
+    @NotNull
+    @Column(name = "available_at")
+    private Instant availableAt = createdAt;
+
+    private int attempts;
+
+    public OutboxEvent(Type type, String payload) {
+        this.type = type;
+        this.payload = payload;
+    }
+}
@@ -10,7 +10,9 @@ import java.time.LocalDateTime;
 
 @Entity
 @Data
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        @Index(name = "idx_reviews_reviewee", columnList = "reviewee_id")
+})
 public class Review {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
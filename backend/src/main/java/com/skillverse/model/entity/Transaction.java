@@ -9,9 +9,19 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+/**
+ * One ledger entry. Entries are append-only and grouped by {@code postingId}
+ * into balanced postings (debits equal credits); an account's balance is its
+ * latest {@link BalanceSnapshot} plus the entries after it. Rows without a
+ * posting id predate the ledger and are already part of the opening balance.
+ */
 @Entity
 @Data
 @NoArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx_transaction_user_id", columnList = "user_id,id"),
+        @Index(name = "idx_transaction_posting", columnList = "posting_id")
+})
 public class Transaction {
 
     @Id
@@ -37,6 +47,9 @@ public class Transaction {
 
     private String description; // e.g., "Initial Grant", "Escrow for Booking #123"
 
+    @Column(name = "posting_id", length = 36)
+    private String postingId;
+
     @NotNull
     private LocalDateTime createdAt = LocalDateTime.now();
 
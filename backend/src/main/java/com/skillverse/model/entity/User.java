@@ -6,11 +6,14 @@ import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_profile_updated_at", columnList = "profile_updated_at")
+})
 @Data
 @NoArgsConstructor
 public class User {
@@ -33,6 +36,8 @@ public class User {
 
     private String avatarUrl;
 
+    // Opening balance carried into the ledger (the signup grant, plus any history from
+    // before the ledger). No longer changed; see LedgerService for the live balance.
     @NotNull
     @Column(precision = 19, scale = 2)
     private BigDecimal tokenBalance = BigDecimal.valueOf(100.00);
@@ -47,6 +52,22 @@ public class User {
     @Column(name = "skill")
     private List<String> skillsWanted = new ArrayList<>();
 
+    // Last change to anything shown on the public profile; drives ETag/Last-Modified.
+    // Set explicitly on profile edits so balance changes do not invalidate cached profiles.
+    @Column(name = "profile_updated_at")
+    private Instant profileUpdatedAt;
+
+    // Optimistic lock on the account. Debits bump it (UserRepository.bumpVersion), so two
+    // transactions that checked the same balance cannot both commit a debit.
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
+    @PrePersist
+    public void prePersist() {
+        if (profileUpdatedAt == null) profileUpdatedAt = Instant.now();
+    }
+
     public User(String name, String email, String password) {
         this.name = name;
         this.email = email;
@@ -0,0 +1,45 @@
+package com.skillverse.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One account's ledger movement on one day. Rows are folded forward from
+ * the ledger by {@code WalletService}, so monthly totals read a month of
+ * these instead of every entry.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@IdClass(WalletDailyTotal.Key.class)
+@Table(name = "wallet_daily_totals")
+public class WalletDailyTotal {
+
+    @Data
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private LocalDate day;
+    }
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    private LocalDate day;
+
+    @Column(precision = 19, scale = 2, nullable = false)
+    private BigDecimal credits;
+
+    @Column(precision = 19, scale = 2, nullable = false)
+    private BigDecimal debits;
+
+    @Column(nullable = false)
+    private long entries;
+}
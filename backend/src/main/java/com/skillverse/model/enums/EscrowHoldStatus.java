@@ -0,0 +1,6 @@
+package com.skillverse.model.enums;
+
+public enum EscrowHoldStatus {
+    HELD,     // Learner's tokens are held for the booking
+    RELEASED  // Paid out to the teacher
+}
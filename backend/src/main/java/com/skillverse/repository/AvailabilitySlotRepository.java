@@ -5,9 +5,18 @@ import com.skillverse.model.entity.AvailabilitySlot;
 import java.time.LocalDateTime;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface AvailabilitySlotRepository extends JpaRepository<AvailabilitySlot, Long> {
     List<AvailabilitySlot> findByTeacher_IdAndReservedFalseAndEndTimeAfterOrderByStartTimeAsc(Long teacherId, LocalDateTime now);
     List<AvailabilitySlot> findByTeacher_IdOrderByStartTimeAsc(Long teacherId);
     boolean existsByTeacher_IdAndReservedFalseAndStartTimeLessThanAndEndTimeGreaterThan(Long teacherId, LocalDateTime end, LocalDateTime start);
+
+    // Check and reserve in one statement: the row lock makes concurrent callers queue,
+    // and each re-checks "reserved = false" after the one before it commits. Returns 1 only for the winner.
+    @Modifying
+    @Query("UPDATE AvailabilitySlot s SET s.reserved = true WHERE s.id = :id AND s.reserved = false AND s.endTime > :now")
+    int reserveIfOpen(@Param("id") Long id, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,56 @@
+package com.skillverse.repository;
+
+import com.skillverse.model.entity.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+
+    Optional<BalanceSnapshot> findFirstByUser_IdOrderByLastTransactionIdDesc(Long userId);
+
+    interface AccountBalance {
+        Long getUserId();
+        BigDecimal getBalance();
+    }
+
+    // Balances of several accounts in one statement: latest snapshot (or the opening balance on the
+    // user row) plus the entries after it, read from a single consistent view
+    @Query(value = "SELECT u.id AS \"userId\", COALESCE(s.balance, u.token_balance) + COALESCE(" +
+            "  (SELECT SUM(CASE WHEN t.type = 'CREDIT' THEN t.amount ELSE -t.amount END) FROM transaction t " +
+            "   WHERE t.user_id = u.id AND t.posting_id IS NOT NULL AND t.id > COALESCE(s.last_transaction_id, 0)), 0) AS \"balance\" " +
+            "FROM users u " +
+            "LEFT JOIN balance_snapshots s ON s.user_id = u.id AND s.last_transaction_id = " +
+            "  (SELECT MAX(s2.last_transaction_id) FROM balance_snapshots s2 WHERE s2.user_id = u.id) " +
+            "WHERE u.id IN (:userIds)", nativeQuery = true)
+    List<AccountBalance> findBalances(@Param("userIds") Collection<Long> userIds);
+
+    // Opening snapshot (last_transaction_id = 0) from the frozen users.token_balance, for accounts without one
+    @Modifying
+    @Query(value = "INSERT INTO balance_snapshots (user_id, balance, last_transaction_id, created_at) " +
+            "SELECT u.id, u.token_balance, 0, now() FROM users u " +
+            "WHERE NOT EXISTS (SELECT 1 FROM balance_snapshots s WHERE s.user_id = u.id) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertMissingOpeningSnapshots();
+
+    // Rolls each account touched by entries in (afterId, throughId] forward from its
+    // latest snapshot. Set-based; safe to run concurrently thanks to the unique key.
+    @Modifying
+    @Query(value = "INSERT INTO balance_snapshots (user_id, balance, last_transaction_id, created_at) " +
+            "SELECT s.user_id, s.balance + SUM(CASE WHEN t.type = 'CREDIT' THEN t.amount ELSE -t.amount END), MAX(t.id), now() " +
+            "FROM balance_snapshots s " +
+            "JOIN transaction t ON t.user_id = s.user_id AND t.posting_id IS NOT NULL " +
+            "  AND t.id > s.last_transaction_id AND t.id <= :throughId " +
+            "WHERE s.last_transaction_id = (SELECT MAX(s2.last_transaction_id) FROM balance_snapshots s2 WHERE s2.user_id = s.user_id) " +
+            "  AND s.user_id IN (SELECT t2.user_id FROM transaction t2 " +
+            "                    WHERE t2.posting_id IS NOT NULL AND t2.id > :afterId AND t2.id <= :throughId) " +
+            "GROUP BY s.user_id, s.balance, s.last_transaction_id " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int rollForward(@Param("afterId") long afterId, @Param("throughId") long throughId);
+}
@@ -1,18 +1,82 @@
 // backend/src/main/java/com/skillverse/repository/BookingRepository.java
 package com.skillverse.repository;
 
+import com.skillverse.dto.BookingDtos.BookingResponseDto;
 import com.skillverse.model.enums.BookingStatus;
 import com.skillverse.model.entity.Booking;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     List<Booking> findAllByStatusAndBookingTimeBefore(BookingStatus status, LocalDateTime threshold);
 
+    // Batch accept/reject: the bookings with everything their validation and notifications read
+    @Query("SELECT b FROM Booking b JOIN FETCH b.listing l JOIN FETCH l.teacher JOIN FETCH b.learner WHERE b.id IN :ids")
+    List<Booking> findAllWithPartiesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Reconciliation: what escrow should hold according to the bookings that are still open
+    @Query("SELECT COALESCE(SUM(l.tokenPrice), 0) FROM Booking b JOIN b.listing l WHERE b.status IN :statuses")
+    BigDecimal sumPriceByStatusIn(@Param("statuses") Collection<BookingStatus> statuses);
+
+    // Bookings due for escrow release in one shard (id % shards = shard)
+    @Query(value = "SELECT COUNT(*) FROM booking WHERE status = 'CONFIRMED' AND booking_time < :threshold " +
+            "AND MOD(id, :shards) = :shard", nativeQuery = true)
+    long countDueForRelease(@Param("threshold") LocalDateTime threshold,
+                            @Param("shards") int shards,
+                            @Param("shard") int shard);
+
+    // Claims the next chunk of bookings due for escrow release in one shard. Rows locked
+    // by another worker are skipped rather than waited on; locks last until commit.
+    @Query(value = "SELECT id FROM booking WHERE status = 'CONFIRMED' AND booking_time < :threshold AND id > :afterId " +
+            "AND MOD(id, :shards) = :shard ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> claimDueForRelease(@Param("threshold") LocalDateTime threshold,
+                                  @Param("afterId") long afterId,
+                                  @Param("limit") int limit,
+                                  @Param("shards") int shards,
+                                  @Param("shard") int shard);
+
+    @Query("SELECT MIN(b.bookingTime) FROM Booking b WHERE b.status = :status")
+    LocalDateTime findOldestBookingTime(@Param("status") BookingStatus status);
+
+    // Keyset scan of one status without loading entities; rebuilds the escrow release timer
+    interface BookingTime {
+        Long getId();
+        LocalDateTime getBookingTime();
+    }
+
+    @Query("SELECT b.id AS id, b.bookingTime AS bookingTime FROM Booking b WHERE b.status = :status AND b.id > :afterId ORDER BY b.id")
+    List<BookingTime> findTimesByStatus(@Param("status") BookingStatus status, @Param("afterId") long afterId, Pageable pageable);
+
     List<Booking> findByListing_Teacher_Email(String teacherEmail);
 
+    // Booking inboxes: one keyset page of DTOs in a single joined query, newest first.
+    // Served by idx_booking_learner_status_id, and by idx_listing_teacher_id + idx_booking_listing_status_id.
+    @Query("SELECT new com.skillverse.dto.BookingDtos$BookingResponseDto(b.id, l.id, l.title, le.id, le.name, t.id, t.name, " +
+            "l.tokenPrice, b.status, b.bookingTime, b.sessionRoomId) " +
+            "FROM Booking b JOIN b.listing l JOIN l.teacher t JOIN b.learner le " +
+            "WHERE le.email = :email AND b.status IN :statuses AND b.id < :beforeId ORDER BY b.id DESC")
+    List<BookingResponseDto> findSentPage(@Param("email") String learnerEmail,
+                                          @Param("statuses") Collection<BookingStatus> statuses,
+                                          @Param("beforeId") long beforeId,
+                                          Pageable pageable);
+
+    @Query("SELECT new com.skillverse.dto.BookingDtos$BookingResponseDto(b.id, l.id, l.title, le.id, le.name, t.id, t.name, " +
+            "l.tokenPrice, b.status, b.bookingTime, b.sessionRoomId) " +
+            "FROM Booking b JOIN b.listing l JOIN l.teacher t JOIN b.learner le " +
+            "WHERE t.email = :email AND b.status IN :statuses AND b.id < :beforeId ORDER BY b.id DESC")
+    List<BookingResponseDto> findReceivedPage(@Param("email") String teacherEmail,
+                                              @Param("statuses") Collection<BookingStatus> statuses,
+                                              @Param("beforeId") long beforeId,
+                                              Pageable pageable);
+
     // FIX: align with Booking.learner (User) -> User.email
     List<Booking> findByLearner_Email(String learnerEmail);
 
@@ -0,0 +1,80 @@
+package com.skillverse.repository;
+
+import com.skillverse.model.entity.ConversationSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ConversationSummaryRepository extends JpaRepository<ConversationSummary, ConversationSummary.Key> {
+
+    // Records a new message in the owner's summary. The last message only ever moves forward,
+    // so concurrent sends settle on the newest one whatever order they commit in.
+    @Modifying
+    @Query(value = "INSERT INTO conversation_summaries " +
+            "  (owner_id, other_user_id, last_message_id, last_sender_id, snippet, last_message_at, unread_count) " +
+            "VALUES (:ownerId, :otherUserId, :messageId, :senderId, :snippet, :createdAt, :unread) " +
+            "ON CONFLICT (owner_id, other_user_id) DO UPDATE SET " +
+            "  last_message_id = CASE WHEN EXCLUDED.last_message_id > conversation_summaries.last_message_id " +
+            "    THEN EXCLUDED.last_message_id ELSE conversation_summaries.last_message_id END, " +
+            "  last_sender_id = CASE WHEN EXCLUDED.last_message_id > conversation_summaries.last_message_id " +
+            "    THEN EXCLUDED.last_sender_id ELSE conversation_summaries.last_sender_id END, " +
+            "  snippet = CASE WHEN EXCLUDED.last_message_id > conversation_summaries.last_message_id " +
+            "    THEN EXCLUDED.snippet ELSE conversation_summaries.snippet END, " +
+            "  last_message_at = CASE WHEN EXCLUDED.last_message_id > conversation_summaries.last_message_id " +
+            "    THEN EXCLUDED.last_message_at ELSE conversation_summaries.last_message_at END, " +
+            "  unread_count = conversation_summaries.unread_count + EXCLUDED.unread_count", nativeQuery = true)
+    int recordMessage(@Param("ownerId") Long ownerId, @Param("otherUserId") Long otherUserId,
+                      @Param("messageId") Long messageId, @Param("senderId") Long senderId,
+                      @Param("snippet") String snippet, @Param("createdAt") LocalDateTime createdAt,
+                      @Param("unread") int unread);
+
+    @Modifying
+    @Query("UPDATE ConversationSummary s SET s.unreadCount = CASE WHEN s.unreadCount > :count THEN s.unreadCount - :count ELSE 0 END " +
+            "WHERE s.ownerId = :ownerId AND s.otherUserId = :otherUserId")
+    int decrementUnread(@Param("ownerId") Long ownerId, @Param("otherUserId") Long otherUserId, @Param("count") long count);
+
+    // Every conversation's summaries, derived from the messages themselves. A row a send has
+    // already created keeps the newer last message, but its unread count is recounted: the
+    // send only added its own message. Run under REPEATABLE READ, a send committing meanwhile
+    // fails this with a serialization error rather than going uncounted.
+    @Modifying
+    @Query(value = """
+      INSERT INTO conversation_summaries
+        (owner_id, other_user_id, last_message_id, last_sender_id, snippet, last_message_at, unread_count)
+      SELECT p.owner_id, p.other_user_id, m.id, m.sender_id,
+             CASE WHEN LENGTH(m.content) > :snippetLength THEN SUBSTRING(m.content, 1, :snippetLength) || '...' ELSE m.content END,
+             m.created_at,
+             (SELECT COUNT(*) FROM messages u
+              WHERE u.conversation_key = m.conversation_key AND u.recipient_id = p.owner_id AND u.read_at IS NULL)
+      FROM (
+        SELECT owner_id, other_user_id, MAX(id) AS last_id
+        FROM (
+          SELECT sender_id AS owner_id, recipient_id AS other_user_id, id FROM messages
+          UNION ALL
+          SELECT recipient_id, sender_id, id FROM messages
+        ) x
+        GROUP BY owner_id, other_user_id
+      ) p
+      JOIN messages m ON m.id = p.last_id
+      ON CONFLICT (owner_id, other_user_id) DO UPDATE SET
+        last_message_id = CASE WHEN EXCLUDED.last_message_id > conversation_summaries.last_message_id
+          THEN EXCLUDED.last_message_id ELSE conversation_summaries.last_message_id END,
+        last_sender_id = CASE WHEN EXCLUDED.last_message_id > conversation_summaries.last_message_id
+          THEN EXCLUDED.last_sender_id ELSE conversation_summaries.last_sender_id END,
+        snippet = CASE WHEN EXCLUDED.last_message_id > conversation_summaries.last_message_id
+          THEN EXCLUDED.snippet ELSE conversation_summaries.snippet END,
+        last_message_at = CASE WHEN EXCLUDED.last_message_id > conversation_summaries.last_message_id
+          THEN EXCLUDED.last_message_at ELSE conversation_summaries.last_message_at END,
+        unread_count = EXCLUDED.unread_count
+    """, nativeQuery = true)
+    int backfill(@Param("snippetLength") int snippetLength);
+
+    List<ConversationSummary> findByOwnerIdOrderByLastMessageIdDesc(Long ownerId, Pageable pageable);
+
+    List<ConversationSummary> findByOwnerIdAndLastMessageIdLessThanOrderByLastMessageIdDesc(Long ownerId, Long lastMessageId, Pageable pageable);
+}
@@ -0,0 +1,32 @@
+package com.skillverse.repository;
+
+import com.skillverse.model.entity.EscrowHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface EscrowHoldRepository extends JpaRepository<EscrowHold, Long> {
+
+    List<EscrowHold> findByBooking_IdIn(Collection<Long> bookingIds);
+
+    // Conditional on HELD so that two concurrent releases of the same booking cannot both succeed
+    @Modifying
+    @Query("UPDATE EscrowHold h SET h.status = com.skillverse.model.enums.EscrowHoldStatus.RELEASED, h.releasedAt = :now, h.version = h.version + 1 " +
+            "WHERE h.id IN :ids AND h.status = com.skillverse.model.enums.EscrowHoldStatus.HELD")
+    int releaseHeld(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    interface HeldTotal {
+        long getCount();
+        BigDecimal getAmount();
+    }
+
+    @Query("SELECT COUNT(h) AS count, COALESCE(SUM(h.amount), 0) AS amount FROM EscrowHold h " +
+            "WHERE h.status = com.skillverse.model.enums.EscrowHoldStatus.HELD")
+    HeldTotal findHeldTotal();
+}
@@ -0,0 +1,41 @@
+package com.skillverse.repository;
+
+import com.skillverse.model.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Returns 1 if this call created the row and so owns the request; 0 if the key is already known
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_records (key_hash, request_hash, locked_at, expires_at) " +
+            "VALUES (:keyHash, :requestHash, :now, :expiresAt) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("keyHash") String keyHash, @Param("requestHash") String requestHash,
+                       @Param("now") Instant now, @Param("expiresAt") Instant expiresAt);
+
+    // Takes over an expired row, or one left in progress by a request that died; only one caller can win
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.requestHash = :requestHash, r.lockedAt = :now, r.expiresAt = :expiresAt, " +
+            "r.status = null, r.contentType = null, r.body = null " +
+            "WHERE r.keyHash = :keyHash AND r.lockedAt = :lockedAt")
+    int takeOver(@Param("keyHash") String keyHash, @Param("lockedAt") Instant lockedAt, @Param("requestHash") String requestHash,
+                 @Param("now") Instant now, @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = :status, r.contentType = :contentType, r.body = :body " +
+            "WHERE r.keyHash = :keyHash AND r.lockedAt = :lockedAt")
+    int complete(@Param("keyHash") String keyHash, @Param("lockedAt") Instant lockedAt,
+                 @Param("status") int status, @Param("contentType") String contentType, @Param("body") byte[] body);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.keyHash = :keyHash AND r.lockedAt = :lockedAt AND r.status IS NULL")
+    int release(@Param("keyHash") String keyHash, @Param("lockedAt") Instant lockedAt);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
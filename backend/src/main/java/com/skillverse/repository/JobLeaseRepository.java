@@ -0,0 +1,25 @@
+package com.skillverse.repository;
+
+import com.skillverse.model.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    // Takes the lease if nobody holds it, it has expired, or this node already holds it.
+    // Returns 1 when taken; concurrent callers serialize on the row, so only one can win.
+    @Modifying
+    @Query(value = "INSERT INTO job_leases (name, owner, leased_until) VALUES (:name, :owner, :until) " +
+            "ON CONFLICT (name) DO UPDATE SET owner = EXCLUDED.owner, leased_until = EXCLUDED.leased_until " +
+            "WHERE job_leases.leased_until < :now OR job_leases.owner = EXCLUDED.owner", nativeQuery = true)
+    int tryAcquire(@Param("name") String name, @Param("owner") String owner,
+                   @Param("now") Instant now, @Param("until") Instant until);
+
+    @Modifying
+    @Query("UPDATE JobLease l SET l.leasedUntil = :now, l.lastCompletedAt = :now WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now);
+}
@@ -0,0 +1,22 @@
+package com.skillverse.repository;
+
+import com.skillverse.model.entity.LedgerWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface LedgerWatermarkRepository extends JpaRepository<LedgerWatermark, String> {
+
+    @Query("SELECT w.lastTransactionId FROM LedgerWatermark w WHERE w.name = :name")
+    Long findLastTransactionId(@Param("name") String name);
+
+    @Modifying
+    @Query(value = "INSERT INTO ledger_watermarks (name, last_transaction_id) VALUES (:name, 0) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int createIfAbsent(@Param("name") String name);
+
+    // Moves the watermark only if nobody else has since; 0 means this fold must roll back
+    @Modifying
+    @Query("UPDATE LedgerWatermark w SET w.lastTransactionId = :throughId WHERE w.name = :name AND w.lastTransactionId = :afterId")
+    int advance(@Param("name") String name, @Param("afterId") long afterId, @Param("throughId") long throughId);
+}
@@ -1,11 +1,51 @@
 package com.skillverse.repository;
 
+import com.skillverse.dto.ListingDtos.ListingDto;
 import com.skillverse.model.entity.Listing;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 
 public interface ListingRepository extends JpaRepository<Listing, Long> {
     List<Listing> findByTitleContainingIgnoreCase(String title);
-}
\ No newline at end of file
+
+    // Keyset scan used to (re)build the in-memory indexes
+    List<Listing> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    @Query("SELECT l FROM Listing l JOIN FETCH l.teacher WHERE l.id IN :ids")
+    List<Listing> findAllWithTeacherByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Catalog pages: DTOs projected straight from a single join, newest first (ids follow creation order)
+    @Query("SELECT new com.skillverse.dto.ListingDtos$ListingDto(l.id, l.title, l.description, l.tokenPrice, t.id, t.name) " +
+            "FROM Listing l JOIN l.teacher t ORDER BY l.id DESC")
+    List<ListingDto> findCatalogPage(Pageable pageable);
+
+    @Query("SELECT new com.skillverse.dto.ListingDtos$ListingDto(l.id, l.title, l.description, l.tokenPrice, t.id, t.name) " +
+            "FROM Listing l JOIN l.teacher t WHERE l.id < :beforeId ORDER BY l.id DESC")
+    List<ListingDto> findCatalogPageBefore(@Param("beforeId") Long beforeId, Pageable pageable);
+
+    // Conditional GET validators: scalars only, no entities or DTOs are built
+    interface ListingVersion {
+        long getVersion();
+        Instant getTeacherUpdatedAt();
+    }
+
+    interface CatalogVersion {
+        long getCount();
+        Long getMaxId();
+        Long getVersionSum();
+    }
+
+    @Query("SELECT l.version AS version, t.profileUpdatedAt AS teacherUpdatedAt FROM Listing l JOIN l.teacher t WHERE l.id = :id")
+    Optional<ListingVersion> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT COUNT(l) AS count, COALESCE(MAX(l.id), 0) AS maxId, COALESCE(SUM(l.version), 0) AS versionSum FROM Listing l")
+    CatalogVersion findCatalogVersion();
+}
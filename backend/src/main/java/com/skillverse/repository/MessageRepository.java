@@ -1,28 +1,36 @@
 package com.skillverse.repository;
 
+import com.skillverse.dto.MessageDtos.MessageResponse;
 import com.skillverse.model.entity.Message;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface MessageRepository extends JpaRepository<Message, Long> {
 
     List<Message> findByConversationKeyOrderByCreatedAtAsc(String conversationKey);
 
+    // Newest messages of a conversation before a cursor, built from columns only: the sender,
+    // recipient and booking ids come from the foreign keys, so no User or Booking is loaded
+    @Query("SELECT new com.skillverse.dto.MessageDtos$MessageResponse(m.id, m.sender.id, m.recipient.id, m.booking.id, m.content, m.createdAt, m.readAt) " +
+            "FROM Message m WHERE m.conversationKey = :key AND m.id < :beforeId ORDER BY m.id DESC")
+    List<MessageResponse> findConversationPage(@Param("key") String conversationKey, @Param("beforeId") long beforeId, Pageable pageable);
+
     long countByRecipient_IdAndReadAtIsNull(Long userId);
 
-    @Query(value = """
-      SELECT m.*
-      FROM messages m
-      JOIN (
-        SELECT conversation_key, MAX(id) AS last_id
-        FROM messages
-        WHERE sender_id = :userId OR recipient_id = :userId
-        GROUP BY conversation_key
-      ) x ON m.id = x.last_id
-      ORDER BY m.created_at DESC
-    """, nativeQuery = true)
-    List<Message> findLastMessagesPerConversation(@Param("userId") Long userId);
+    @Modifying
+    @Query("UPDATE Message m SET m.readAt = :readAt WHERE m.id = :id AND m.recipient.id = :readerId AND m.readAt IS NULL")
+    int markRead(@Param("id") Long id, @Param("readerId") Long readerId, @Param("readAt") LocalDateTime readAt);
+
+    // Everything the reader has received in the conversation up to and including upToId
+    @Modifying
+    @Query("UPDATE Message m SET m.readAt = :readAt WHERE m.conversationKey = :key AND m.id <= :upToId " +
+            "AND m.recipient.id = :readerId AND m.readAt IS NULL")
+    int markConversationRead(@Param("key") String conversationKey, @Param("readerId") Long readerId,
+                             @Param("upToId") Long upToId, @Param("readAt") LocalDateTime readAt);
 }
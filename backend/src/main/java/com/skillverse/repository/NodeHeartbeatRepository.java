@@ -0,0 +1,26 @@
+package com.skillverse.repository;
+
+import com.skillverse.model.entity.NodeHeartbeat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface NodeHeartbeatRepository extends JpaRepository<NodeHeartbeat, String> {
+
+    // Only the node itself writes its row, so update-else-insert cannot race
+    @Modifying
+    @Query("UPDATE NodeHeartbeat n SET n.heartbeatAt = :now WHERE n.nodeId = :nodeId")
+    int touch(@Param("nodeId") String nodeId, @Param("now") Instant now);
+
+    // Live nodes in a stable order; a node's position is its shard number
+    @Query("SELECT n.nodeId FROM NodeHeartbeat n WHERE n.heartbeatAt > :cutoff ORDER BY n.nodeId")
+    List<String> findLiveNodeIds(@Param("cutoff") Instant cutoff);
+
+    @Modifying
+    @Query("DELETE FROM NodeHeartbeat n WHERE n.heartbeatAt < :cutoff")
+    int deleteStale(@Param("cutoff") Instant cutoff);
+}
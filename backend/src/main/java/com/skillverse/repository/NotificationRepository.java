@@ -1,10 +1,18 @@
 package com.skillverse.repository;
 
 import com.skillverse.model.entity.Notification;
+import java.time.Instant;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByUser_IdOrderByCreatedAtDesc(Long userId);
     long countByUser_IdAndReadAtIsNull(Long userId);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.readAt = :readAt WHERE n.user.id = :userId AND n.readAt IS NULL AND n.id <= :upToId")
+    int markReadUpTo(@Param("userId") Long userId, @Param("upToId") Long upToId, @Param("readAt") Instant readAt);
 }
@@ -0,0 +1,23 @@
+package com.skillverse.repository;
+
+import com.skillverse.model.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Claims the oldest deliverable events. Rows another dispatcher is working on are
+    // skipped, so several nodes can drain the outbox without delivering anything twice.
+    @Query(value = "SELECT * FROM outbox_events WHERE available_at <= :now ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxEvent> claimBatch(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM outbox_events WHERE id = :id FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> claimById(@Param("id") Long id);
+
+    long countByAvailableAtLessThanEqual(Instant now);
+}
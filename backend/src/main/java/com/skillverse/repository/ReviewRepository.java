@@ -4,6 +4,7 @@ import com.skillverse.model.entity.Review;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.Instant;
 import java.util.List;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
@@ -13,4 +14,16 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     @Query("SELECT AVG(r.rating) FROM Review r WHERE r.reviewee.id = :revieweeId")
     Double findAverageRatingByRevieweeId(Long revieweeId);
+
+    // Conditional GET validator: reviews are append-only, so count + newest id identify the list;
+    // reviewer names are shown too, so their latest profile change is included
+    interface ReviewsVersion {
+        long getCount();
+        Long getMaxId();
+        Instant getReviewersUpdatedAt();
+    }
+
+    @Query("SELECT COUNT(r) AS count, COALESCE(MAX(r.id), 0) AS maxId, MAX(u.profileUpdatedAt) AS reviewersUpdatedAt " +
+            "FROM Review r JOIN r.reviewer u WHERE r.reviewee.id = :revieweeId")
+    ReviewsVersion findVersionByRevieweeId(Long revieweeId);
 }
\ No newline at end of file
@@ -2,6 +2,65 @@ package com.skillverse.repository;
 
 import com.skillverse.model.entity.Transaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-}
\ No newline at end of file
+
+    // Net ledger movement on an account after a snapshot: credits minus debits
+    @Query("SELECT COALESCE(SUM(CASE WHEN t.type = com.skillverse.model.enums.TransactionType.CREDIT THEN t.amount ELSE -t.amount END), 0) " +
+            "FROM Transaction t WHERE t.user.id = :userId AND t.postingId IS NOT NULL AND t.id > :afterId")
+    BigDecimal sumSince(@Param("userId") Long userId, @Param("afterId") Long afterId);
+
+    // Highest ledger entry written before the cutoff; snapshots never go past it
+    @Query("SELECT COALESCE(MAX(t.id), 0) FROM Transaction t WHERE t.postingId IS NOT NULL AND t.createdAt < :cutoff")
+    long findMaxPostedIdBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    interface StatementRow {
+        Long getId();
+        String getType();
+        BigDecimal getAmount();
+        BigDecimal getBalanceAfter();
+        String getDescription();
+        Long getBookingId();
+        LocalDateTime getCreatedAt();
+    }
+
+    // One statement page of an account's ledger entries, newest first, with the balance after each.
+    // The page's newest balance is the nearest snapshot at or below it plus the entries in between;
+    // each older row then subtracts the rows above it with a window sum.
+    @Query(value = "WITH page AS (" +
+            "  SELECT t.id, t.type, t.amount, t.description, t.booking_id, t.created_at, " +
+            "         CASE WHEN t.type = 'CREDIT' THEN t.amount ELSE -t.amount END AS signed " +
+            "  FROM transaction t " +
+            "  WHERE t.user_id = :userId AND t.posting_id IS NOT NULL AND t.id < :beforeId " +
+            "  ORDER BY t.id DESC LIMIT :limit), " +
+            "anchor AS (" +
+            "  SELECT s.balance, s.last_transaction_id FROM balance_snapshots s " +
+            "  WHERE s.user_id = :userId AND s.last_transaction_id <= (SELECT MAX(id) FROM page) " +
+            "  ORDER BY s.last_transaction_id DESC LIMIT 1), " +
+            "newest AS (" +
+            "  SELECT (SELECT balance FROM anchor) + COALESCE(SUM(CASE WHEN t.type = 'CREDIT' THEN t.amount ELSE -t.amount END), 0) AS balance " +
+            "  FROM transaction t " +
+            "  WHERE t.user_id = :userId AND t.posting_id IS NOT NULL " +
+            "    AND t.id > (SELECT last_transaction_id FROM anchor) AND t.id <= (SELECT MAX(id) FROM page)) " +
+            "SELECT p.id AS \"id\", p.type AS \"type\", p.amount AS \"amount\", " +
+            "       (SELECT balance FROM newest) - COALESCE(SUM(p.signed) OVER (ORDER BY p.id DESC ROWS BETWEEN UNBOUNDED PRECEDING AND 1 PRECEDING), 0) AS \"balanceAfter\", " +
+            "       p.description AS \"description\", p.booking_id AS \"bookingId\", p.created_at AS \"createdAt\" " +
+            "FROM page p ORDER BY p.id DESC", nativeQuery = true)
+    List<StatementRow> findStatementPage(@Param("userId") Long userId, @Param("beforeId") long beforeId, @Param("limit") int limit);
+
+    // Entries not yet folded into wallet_daily_totals, by month
+    @Query("SELECT YEAR(t.createdAt) AS calendarYear, MONTH(t.createdAt) AS calendarMonth, " +
+            "SUM(CASE WHEN t.type = com.skillverse.model.enums.TransactionType.CREDIT THEN t.amount ELSE 0 END) AS credits, " +
+            "SUM(CASE WHEN t.type = com.skillverse.model.enums.TransactionType.DEBIT THEN t.amount ELSE 0 END) AS debits, " +
+            "COUNT(t) AS entries " +
+            "FROM Transaction t WHERE t.user.id = :userId AND t.postingId IS NOT NULL AND t.id > :afterId AND t.createdAt >= :from " +
+            "GROUP BY YEAR(t.createdAt), MONTH(t.createdAt)")
+    List<WalletDailyTotalRepository.MonthTotal> findMonthTotalsSince(@Param("userId") Long userId, @Param("afterId") long afterId,
+                                                                     @Param("from") LocalDateTime from);
+}
@@ -1,7 +1,13 @@
 package com.skillverse.repository;
 
 import com.skillverse.model.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
 import java.util.*;
 
 
@@ -9,4 +15,36 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Boolean existsByEmail(String email);
     List<User> findByNameContainingIgnoreCase(String name);
-}
\ No newline at end of file
+
+    // Keyset scan used to (re)build the in-memory indexes
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    // Optimistic lock for debits: read the account's version before its balance, then claim it
+    // with bumpVersion. Of two debits that read the same version, only one can commit.
+    @Query("SELECT u.version FROM User u WHERE u.id = :id")
+    long findVersionById(@Param("id") Long id);
+
+    interface AccountVersion {
+        Long getId();
+        long getVersion();
+    }
+
+    @Query("SELECT u.id AS id, u.version AS version FROM User u WHERE u.id IN :ids")
+    List<AccountVersion> findVersionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE User u SET u.version = u.version + 1 WHERE u.id = :id AND u.version = :version")
+    int bumpVersion(@Param("id") Long id, @Param("version") long version);
+
+    // Conditional GET validators: read a timestamp instead of loading the profile
+    interface ProfileVersion {
+        Long getId();
+        Instant getProfileUpdatedAt();
+    }
+
+    @Query("SELECT u.id AS id, u.profileUpdatedAt AS profileUpdatedAt FROM User u WHERE u.id = :id")
+    Optional<ProfileVersion> findProfileVersionById(@Param("id") Long id);
+
+    @Query("SELECT MAX(u.profileUpdatedAt) FROM User u")
+    Instant findLatestProfileUpdate();
+}
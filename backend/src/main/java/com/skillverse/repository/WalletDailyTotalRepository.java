@@ -0,0 +1,44 @@
+package com.skillverse.repository;
+
+import com.skillverse.model.entity.WalletDailyTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface WalletDailyTotalRepository extends JpaRepository<WalletDailyTotal, WalletDailyTotal.Key> {
+
+    // Adds the ledger entries in (afterId, throughId] to each account's day. Not idempotent:
+    // callers advance the watermark in the same transaction so a range is folded once.
+    @Modifying
+    @Query(value = "INSERT INTO wallet_daily_totals (user_id, day, credits, debits, entries) " +
+            "SELECT t.user_id, CAST(t.created_at AS date), " +
+            "       SUM(CASE WHEN t.type = 'CREDIT' THEN t.amount ELSE 0 END), " +
+            "       SUM(CASE WHEN t.type = 'DEBIT' THEN t.amount ELSE 0 END), COUNT(*) " +
+            "FROM transaction t " +
+            "WHERE t.posting_id IS NOT NULL AND t.id > :afterId AND t.id <= :throughId " +
+            "GROUP BY t.user_id, CAST(t.created_at AS date) " +
+            "ON CONFLICT (user_id, day) DO UPDATE SET " +
+            "  credits = wallet_daily_totals.credits + EXCLUDED.credits, " +
+            "  debits = wallet_daily_totals.debits + EXCLUDED.debits, " +
+            "  entries = wallet_daily_totals.entries + EXCLUDED.entries", nativeQuery = true)
+    int foldForward(@Param("afterId") long afterId, @Param("throughId") long throughId);
+
+    interface MonthTotal {
+        int getCalendarYear();
+        int getCalendarMonth();
+        BigDecimal getCredits();
+        BigDecimal getDebits();
+        long getEntries();
+    }
+
+    @Query("SELECT YEAR(d.day) AS calendarYear, MONTH(d.day) AS calendarMonth, " +
+            "SUM(d.credits) AS credits, SUM(d.debits) AS debits, SUM(d.entries) AS entries " +
+            "FROM WalletDailyTotal d WHERE d.userId = :userId AND d.day >= :from " +
+            "GROUP BY YEAR(d.day), MONTH(d.day)")
+    List<MonthTotal> findMonthTotals(@Param("userId") Long userId, @Param("from") LocalDate from);
+}
@@ -2,30 +2,53 @@
 package com.skillverse.scheduler;
 
 import com.skillverse.service.BookingService;
+import com.skillverse.service.ClusterService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Component
 public class BookingEscrowScheduler {
 
     private static final Logger log = LoggerFactory.getLogger(BookingEscrowScheduler.class);
+    static final String JOB = "escrow-auto-release";
+
     private final BookingService bookingService;
+    private final ClusterService clusterService;
+    private final boolean sharded;
+    private final Duration leaseTtl;
 
-    public BookingEscrowScheduler(BookingService bookingService) {
+    public BookingEscrowScheduler(BookingService bookingService,
+                                  ClusterService clusterService,
+                                  @Value("${escrow.release.sharded:false}") boolean sharded,
+                                  @Value("${scheduler.lease.ttl-seconds:600}") long leaseTtlSeconds) {
         this.bookingService = bookingService;
+        this.clusterService = clusterService;
+        this.sharded = sharded;
+        this.leaseTtl = Duration.ofSeconds(leaseTtlSeconds);
     }
 
-    // Runs every hour at the top of the hour
+    // Backstop for EscrowReleaseTimer, which releases each booking when it comes due:
+    // runs every hour at the top of the hour and picks up anything the timer missed.
+    // Every node fires this; unsharded, one node takes the lease and the rest skip.
+    // Sharded, each node leases and drains its own slice of the bookings.
     @Scheduled(cron = "0 0 * * * *")
     public void runAutoRelease() {
-        log.info("Running scheduled job: Auto-Release Escrow...");
+        ClusterService.Shard shard = sharded ? clusterService.currentShard() : ClusterService.Shard.ALL;
+        String job = sharded ? JOB + "-" + shard.index() + "-of-" + shard.count() : JOB;
         try {
-            bookingService.autoReleaseEscrow();
-            log.info("Auto-Release Escrow job finished successfully.");
+            boolean ran = clusterService.runExclusively(job, leaseTtl, () -> {
+                log.info("Running scheduled job: Auto-Release Escrow (shard {} of {})...", shard.index() + 1, shard.count());
+                int released = bookingService.autoReleaseEscrow(shard);
+                log.info("Auto-Release Escrow job finished successfully: {} bookings released.", released);
+            });
+            if (!ran) log.info("Skipping Auto-Release Escrow: {} is leased by another node.", job);
         } catch (Exception e) {
             log.error("Error during scheduled escrow auto-release", e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,41 @@
+// backend/src/main/java/com/skillverse/scheduler/LedgerSnapshotScheduler.java
+package com.skillverse.scheduler;
+
+import com.skillverse.service.ClusterService;
+import com.skillverse.service.LedgerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class LedgerSnapshotScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerSnapshotScheduler.class);
+    static final String JOB = "ledger-snapshot-roll";
+
+    private final LedgerService ledgerService;
+    private final ClusterService clusterService;
+    private final Duration leaseTtl;
+
+    public LedgerSnapshotScheduler(LedgerService ledgerService,
+                                   ClusterService clusterService,
+                                   @Value("${scheduler.lease.ttl-seconds:600}") long leaseTtlSeconds) {
+        this.ledgerService = ledgerService;
+        this.clusterService = clusterService;
+        this.leaseTtl = Duration.ofSeconds(leaseTtlSeconds);
+    }
+
+    // One node at a time rolls the snapshots forward; the others skip this round
+    @Scheduled(fixedDelayString = "${ledger.snapshot.interval-ms:300000}", initialDelayString = "${ledger.snapshot.interval-ms:300000}")
+    public void rollSnapshotsForward() {
+        try {
+            clusterService.runExclusively(JOB, leaseTtl, ledgerService::rollSnapshotsForward);
+        } catch (Exception e) {
+            log.error("Error rolling ledger snapshots forward", e);
+        }
+    }
+}
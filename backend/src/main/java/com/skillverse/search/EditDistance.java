@@ -0,0 +1,47 @@
+package com.skillverse.search;
+
+/**
+ * Optimal-string-alignment distance (Levenshtein plus adjacent transpositions,
+ * so "pyhton" is one edit from "python") with an early exit once the bound is
+ * exceeded.
+ */
+public final class EditDistance {
+
+    private EditDistance() {}
+
+    /** Returns the distance between a and b, or {@code max + 1} if it exceeds {@code max}. */
+    public static int bounded(String a, String b, int max) {
+        int n = a.length(), m = b.length();
+        if (Math.abs(n - m) > max) return max + 1;
+        int[] prevPrev = new int[m + 1];
+        int[] prev = new int[m + 1];
+        int[] cur = new int[m + 1];
+        for (int j = 0; j <= m; j++) prev[j] = j;
+        for (int i = 1; i <= n; i++) {
+            cur[0] = i;
+            int rowMin = cur[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int d = Math.min(Math.min(prev[j] + 1, cur[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d = Math.min(d, prevPrev[j - 2] + 1);
+                }
+                cur[j] = d;
+                rowMin = Math.min(rowMin, d);
+            }
+            if (rowMin > max) return max + 1;
+            int[] tmp = prevPrev;
+            prevPrev = prev;
+            prev = cur;
+            cur = tmp;
+        }
+        return Math.min(prev[m], max + 1);
+    }
+
+    /** Edits tolerated for a query token of the given length. */
+    public static int allowedEdits(int length) {
+        if (length <= 2) return 0;
+        if (length <= 5) return 1;
+        return 2;
+    }
+}
@@ -0,0 +1,318 @@
+package com.skillverse.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Tokenizing in-memory inverted index. Terms are dictionary-encoded to int ids
+ * and each term owns a compact {@link PostingList}. A forward map of doc id to
+ * term ids lets a document be re-indexed in place when it changes.
+ *
+ * <p>The vocabulary is also indexed by padded character trigrams so
+ * {@link #fuzzySearch} can find misspelled terms without scanning every term.
+ * A term leaves the trigram index when its last document goes, and comes back
+ * if a document uses it again.
+ */
+public class InvertedIndex {
+
+    /** A piece of text to index together with its field boost. */
+    public record Field(String text, int weight) {}
+
+    /** A ranked match; {@code edits} is the total typo distance (always 0 for exact search). */
+    public record Hit(long id, double score, int edits) {}
+
+    static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::edits)
+            .thenComparing(Comparator.comparingDouble(Hit::score).reversed())
+            .thenComparingLong(Hit::id);
+
+    // Upper bound on vocabulary terms a single misspelled token may expand to
+    private static final int MAX_EXPANSIONS = 32;
+    // Best postings taken from each expansion of the driving token; deeper fuzzy pages are not reachable
+    private static final int MAX_CANDIDATES_PER_EXPANSION = 1000;
+
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> terms = new ArrayList<>();
+    private final List<PostingList> postings = new ArrayList<>();
+    private final Map<Long, int[]> forward = new HashMap<>();
+    private final Map<String, IntList> trigrams = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Indexes (or re-indexes) a document. */
+    public void put(long docId, List<Field> fields) {
+        Map<String, Integer> termWeights = new LinkedHashMap<>();
+        for (Field field : fields) {
+            for (String token : TextNormalizer.tokenize(field.text())) {
+                termWeights.merge(token, field.weight(), Integer::sum);
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(docId);
+            int[] termIds = new int[termWeights.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> e : termWeights.entrySet()) {
+                int termId = dictionary.computeIfAbsent(e.getKey(), t -> {
+                    terms.add(t);
+                    postings.add(new PostingList());
+                    return terms.size() - 1;
+                });
+                PostingList list = postings.get(termId);
+                if (list.size() == 0) {
+                    // New, or pruned from the trigrams when its last document went
+                    for (String gram : trigramsOf(e.getKey())) {
+                        trigrams.computeIfAbsent(gram, g -> new IntList()).add(termId);
+                    }
+                }
+                list.put(docId, e.getValue());
+                termIds[i++] = termId;
+            }
+            forward.put(docId, termIds);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long docId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return forward.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Hit> search(List<String> tokens, int limit) {
+        return search(tokens, limit, null);
+    }
+
+    /**
+     * Returns documents containing every query token, best first. Scoring is
+     * field-weighted term frequency times inverse document frequency.
+     *
+     * @param after keyset cursor: only hits ranked strictly after it are returned (null for the first page)
+     */
+    public List<Hit> search(List<String> tokens, int limit, Hit after) {
+        if (tokens.isEmpty() || limit <= 0) return List.of();
+        lock.readLock().lock();
+        try {
+            PostingList[] lists = new PostingList[tokens.size()];
+            double[] idf = new double[tokens.size()];
+            int n = 0;
+            for (String token : tokens.stream().distinct().toList()) {
+                Integer termId = dictionary.get(token);
+                if (termId == null) return List.of();
+                lists[n] = postings.get(termId);
+                n++;
+            }
+            lists = Arrays.copyOf(lists, n);
+            // Drive the intersection from the rarest term
+            Arrays.sort(lists, Comparator.comparingInt(PostingList::size));
+            for (int t = 0; t < n; t++) {
+                idf[t] = Math.log(1.0 + (double) forward.size() / Math.max(1, lists[t].size()));
+            }
+
+            PriorityQueue<Hit> top = new PriorityQueue<>(RANKING.reversed());
+            PostingList driver = lists[0];
+            outer:
+            for (int i = 0; i < driver.size(); i++) {
+                long id = driver.idAt(i);
+                double score = driver.weightAt(i) * idf[0];
+                for (int t = 1; t < n; t++) {
+                    int w = lists[t].weightOf(id);
+                    if (w < 0) continue outer;
+                    score += w * idf[t];
+                }
+                Hit hit = new Hit(id, score, 0);
+                if (after != null && RANKING.compare(hit, after) <= 0) continue;
+                top.offer(hit);
+                if (top.size() > limit) top.poll();
+            }
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(RANKING);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Hit> fuzzySearch(List<String> tokens, int limit) {
+        return fuzzySearch(tokens, limit, null);
+    }
+
+    /**
+     * Like {@link #search} but each query token also matches vocabulary terms
+     * within a small edit distance. Candidates come from shared trigrams and
+     * are capped per token; the token whose expansions post the fewest
+     * documents drives, taking only the best postings of each expansion, and
+     * the other tokens are probed per candidate. The cost stays bounded
+     * regardless of index size. Hits are ranked by total edits first, then by score.
+     */
+    public List<Hit> fuzzySearch(List<String> tokens, int limit, Hit after) {
+        if (tokens.isEmpty() || limit <= 0) return List.of();
+        lock.readLock().lock();
+        try {
+            List<List<int[]>> perToken = new ArrayList<>();
+            for (String token : tokens.stream().distinct().toList()) {
+                List<int[]> expansions = expandLocked(token);
+                if (expansions.isEmpty()) return List.of();
+                perToken.add(expansions);
+            }
+            perToken.sort(Comparator.comparingLong(this::postedCount));
+
+            Map<Long, Hit> candidates = new HashMap<>();
+            for (int[] expansion : perToken.get(0)) {
+                for (Hit candidate : topPostings(expansion[0], expansion[1], MAX_CANDIDATES_PER_EXPANSION)) {
+                    candidates.merge(candidate.id(), candidate, (a, b) -> RANKING.compare(a, b) <= 0 ? a : b);
+                }
+            }
+
+            PriorityQueue<Hit> top = new PriorityQueue<>(RANKING.reversed());
+            outer:
+            for (Hit first : candidates.values()) {
+                double score = first.score();
+                int edits = first.edits();
+                for (int t = 1; t < perToken.size(); t++) {
+                    Hit other = bestPosting(first.id(), perToken.get(t));
+                    if (other == null) continue outer;
+                    score += other.score();
+                    edits += other.edits();
+                }
+                Hit hit = new Hit(first.id(), score, edits);
+                if (after != null && RANKING.compare(hit, after) <= 0) continue;
+                top.offer(hit);
+                if (top.size() > limit) top.poll();
+            }
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(RANKING);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long postedCount(List<int[]> expansions) {
+        long count = 0;
+        for (int[] expansion : expansions) count += postings.get(expansion[0]).size();
+        return count;
+    }
+
+    private Hit fuzzyHit(PostingList list, int i, int edits) {
+        double idf = Math.log(1.0 + (double) forward.size() / Math.max(1, list.size()));
+        return new Hit(list.idAt(i), list.weightAt(i) * idf / (1 + edits), edits);
+    }
+
+    /** The {@code k} best-ranked postings of one expanded term. */
+    private List<Hit> topPostings(int termId, int edits, int k) {
+        PostingList list = postings.get(termId);
+        PriorityQueue<Hit> best = new PriorityQueue<>(RANKING.reversed());
+        for (int i = 0; i < list.size(); i++) {
+            best.offer(fuzzyHit(list, i, edits));
+            if (best.size() > k) best.poll();
+        }
+        return new ArrayList<>(best);
+    }
+
+    /** The best-ranked posting of {@code docId} among a token's expansions, or null if none posts it. */
+    private Hit bestPosting(long docId, List<int[]> expansions) {
+        Hit best = null;
+        for (int[] expansion : expansions) {
+            PostingList list = postings.get(expansion[0]);
+            double idf = Math.log(1.0 + (double) forward.size() / Math.max(1, list.size()));
+            int weight = list.weightOf(docId);
+            if (weight < 0) continue;
+            Hit hit = new Hit(docId, weight * idf / (1 + expansion[1]), expansion[1]);
+            if (best == null || RANKING.compare(hit, best) < 0) best = hit;
+        }
+        return best;
+    }
+
+    /** Returns {termId, edits} pairs for vocabulary terms close to {@code token}, closest first. */
+    private List<int[]> expandLocked(String token) {
+        int maxEdits = EditDistance.allowedEdits(token.length());
+        List<int[]> expansions = new ArrayList<>();
+        Integer exact = dictionary.get(token);
+        if (exact != null && postings.get(exact).size() == 0) exact = null;
+        if (exact != null) expansions.add(new int[] { exact, 0 });
+        if (maxEdits == 0) return expansions;
+
+        List<String> grams = trigramsOf(token);
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            IntList termIds = trigrams.get(gram);
+            if (termIds == null) continue;
+            for (int i = 0; i < termIds.size; i++) shared.merge(termIds.values[i], 1, Integer::sum);
+        }
+        // Each edit can break at most three trigrams
+        int minShared = Math.max(1, grams.size() - 3 * maxEdits);
+        for (Map.Entry<Integer, Integer> e : shared.entrySet()) {
+            int termId = e.getKey();
+            if (e.getValue() < minShared || (exact != null && termId == exact)) continue;
+            int edits = EditDistance.bounded(token, terms.get(termId), maxEdits);
+            if (edits <= maxEdits) expansions.add(new int[] { termId, edits });
+        }
+        expansions.sort(Comparator.<int[]>comparingInt(x -> x[1])
+                .thenComparing(x -> -postings.get(x[0]).size()));
+        return expansions.size() > MAX_EXPANSIONS ? expansions.subList(0, MAX_EXPANSIONS) : expansions;
+    }
+
+    private static List<String> trigramsOf(String term) {
+        String padded = "$" + term + "$";
+        List<String> grams = new ArrayList<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) grams.add(padded.substring(i, i + 3));
+        if (grams.isEmpty()) grams.add(padded);
+        return grams;
+    }
+
+    private void removeLocked(long docId) {
+        int[] termIds = forward.remove(docId);
+        if (termIds == null) return;
+        for (int termId : termIds) {
+            PostingList list = postings.get(termId);
+            list.remove(docId);
+            if (list.size() == 0) {
+                // No document uses the term any more; stop offering it as a fuzzy expansion
+                for (String gram : trigramsOf(terms.get(termId))) {
+                    IntList ids = trigrams.get(gram);
+                    if (ids != null && ids.remove(termId) && ids.size == 0) trigrams.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static final class IntList {
+        int[] values = new int[2];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        boolean remove(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
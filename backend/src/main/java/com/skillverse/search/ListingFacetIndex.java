@@ -0,0 +1,229 @@
+package com.skillverse.search;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-facet bitmaps over listings. Every listing gets a dense ordinal and sets
+ * one bit in its format bitmap, one price bucket and one duration bucket.
+ * A query ANDs the selected bitmaps. Each facet is counted against the other
+ * facets' selections (multi-select faceting), so counts are bitmap
+ * cardinalities rather than GROUP BY queries.
+ */
+public class ListingFacetIndex {
+
+    /** Upper bounds (exclusive, in tokens) of the price buckets; the last bucket is open-ended. */
+    static final int[] PRICE_BOUNDS = { 25, 50, 100, 200 };
+    public static final List<String> PRICE_BUCKETS = List.of("0-25", "25-50", "50-100", "100-200", "200+");
+
+    /** Upper bounds (inclusive, in minutes) of the duration buckets. */
+    static final int[] DURATION_BOUNDS = { 30, 60, 120 };
+    public static final List<String> DURATION_BUCKETS = List.of("0-30", "31-60", "61-120", "120+", "unspecified");
+
+    public record Query(Set<String> formats, BigDecimal minPrice, BigDecimal maxPrice, Set<String> durations) {}
+
+    /** One page of matching ids (newest first) plus counts for every facet value. */
+    public record Result(List<Long> ids, int total, Long nextCursor,
+                         Map<String, Integer> formatCounts,
+                         Map<String, Integer> priceCounts,
+                         Map<String, Integer> durationCounts) {}
+
+    private long[] ids = new long[64];
+    private long[] priceCents = new long[64];
+    private int[] formatOf = new int[64];
+    private int[] priceBucketOf = new int[64];
+    private int[] durationBucketOf = new int[64];
+    private int size;
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+
+    private final Map<String, Integer> formatIds = new HashMap<>();
+    private final List<String> formatNames = new ArrayList<>();
+    private final List<BitSet> formatBits = new ArrayList<>();
+    private final BitSet[] priceBits = newBitSets(PRICE_BUCKETS.size());
+    private final BitSet[] durationBits = newBitSets(DURATION_BUCKETS.size());
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(long id, String format, BigDecimal price, Integer durationMinutes) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(id);
+            if (ordinal == null) {
+                ordinal = size++;
+                ensureCapacity(size);
+                ordinals.put(id, ordinal);
+                ids[ordinal] = id;
+            } else {
+                formatBits.get(formatOf[ordinal]).clear(ordinal);
+                priceBits[priceBucketOf[ordinal]].clear(ordinal);
+                durationBits[durationBucketOf[ordinal]].clear(ordinal);
+            }
+            String formatKey = TextNormalizer.normalize(format);
+            int formatId = formatIds.computeIfAbsent(formatKey, k -> {
+                formatNames.add(format == null ? "" : format.trim());
+                formatBits.add(new BitSet());
+                return formatNames.size() - 1;
+            });
+            long cents = price == null ? 0 : price.movePointRight(2).longValue();
+
+            formatOf[ordinal] = formatId;
+            priceCents[ordinal] = cents;
+            priceBucketOf[ordinal] = priceBucket(cents);
+            durationBucketOf[ordinal] = durationBucket(durationMinutes);
+            formatBits.get(formatId).set(ordinal);
+            priceBits[priceBucketOf[ordinal]].set(ordinal);
+            durationBits[durationBucketOf[ordinal]].set(ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param beforeId keyset cursor: only listings indexed before this one are returned
+     */
+    public Result query(Query query, Long beforeId, int pageSize) {
+        lock.readLock().lock();
+        try {
+            BitSet formatSel = formatSelection(query.formats());
+            BitSet priceSel = priceSelection(query.minPrice(), query.maxPrice());
+            BitSet durationSel = durationSelection(query.durations());
+
+            BitSet matches = and(formatSel, priceSel, durationSel);
+
+            Map<String, Integer> formatCounts = new LinkedHashMap<>();
+            BitSet otherThanFormat = and(priceSel, durationSel);
+            for (int f = 0; f < formatNames.size(); f++) {
+                int count = intersectionCount(formatBits.get(f), otherThanFormat);
+                if (count > 0) formatCounts.merge(formatNames.get(f), count, Integer::sum);
+            }
+            Map<String, Integer> priceCounts = counts(PRICE_BUCKETS, priceBits, and(formatSel, durationSel));
+            Map<String, Integer> durationCounts = counts(DURATION_BUCKETS, durationBits, and(formatSel, priceSel));
+
+            int start = size - 1;
+            if (beforeId != null) {
+                Integer cursorOrdinal = ordinals.get(beforeId);
+                start = cursorOrdinal != null ? cursorOrdinal - 1 : -1;
+            }
+            List<Long> page = new ArrayList<>(pageSize);
+            int ordinal = start < 0 ? -1 : matches.previousSetBit(start);
+            while (ordinal >= 0 && page.size() < pageSize) {
+                page.add(ids[ordinal]);
+                ordinal = ordinal == 0 ? -1 : matches.previousSetBit(ordinal - 1);
+            }
+            Long next = ordinal >= 0 ? page.get(page.size() - 1) : null;
+            return new Result(page, matches.cardinality(), next, formatCounts, priceCounts, durationCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet formatSelection(Set<String> formats) {
+        if (formats == null || formats.isEmpty()) return null;
+        BitSet selection = new BitSet(size);
+        for (String format : formats) {
+            Integer formatId = formatIds.get(TextNormalizer.normalize(format));
+            if (formatId != null) selection.or(formatBits.get(formatId));
+        }
+        return selection;
+    }
+
+    private BitSet priceSelection(BigDecimal min, BigDecimal max) {
+        if (min == null && max == null) return null;
+        long minCents = min == null ? Long.MIN_VALUE : min.movePointRight(2).longValue();
+        long maxCents = max == null ? Long.MAX_VALUE : max.movePointRight(2).longValue();
+        BitSet selection = new BitSet(size);
+        for (int b = 0; b < priceBits.length; b++) {
+            long lo = b == 0 ? Long.MIN_VALUE : PRICE_BOUNDS[b - 1] * 100L;
+            long hi = b == PRICE_BOUNDS.length ? Long.MAX_VALUE : PRICE_BOUNDS[b] * 100L - 1;
+            if (hi < minCents || lo > maxCents) continue;
+            if (lo >= minCents && hi <= maxCents) {
+                selection.or(priceBits[b]);
+            } else {
+                // Range cuts through this bucket: check the exact prices of its members
+                BitSet bucket = priceBits[b];
+                for (int o = bucket.nextSetBit(0); o >= 0; o = bucket.nextSetBit(o + 1)) {
+                    if (priceCents[o] >= minCents && priceCents[o] <= maxCents) selection.set(o);
+                }
+            }
+        }
+        return selection;
+    }
+
+    private BitSet durationSelection(Set<String> durations) {
+        if (durations == null || durations.isEmpty()) return null;
+        BitSet selection = new BitSet(size);
+        for (String duration : durations) {
+            int bucket = DURATION_BUCKETS.indexOf(duration);
+            if (bucket >= 0) selection.or(durationBits[bucket]);
+        }
+        return selection;
+    }
+
+    /** ANDs the non-null selections; null means "no filter". */
+    private BitSet and(BitSet... selections) {
+        BitSet result = null;
+        for (BitSet selection : selections) {
+            if (selection == null) continue;
+            if (result == null) result = (BitSet) selection.clone();
+            else result.and(selection);
+        }
+        if (result == null) {
+            result = new BitSet(size);
+            result.set(0, size);
+        }
+        return result;
+    }
+
+    private static Map<String, Integer> counts(List<String> labels, BitSet[] bits, BitSet filter) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (int b = 0; b < bits.length; b++) {
+            counts.put(labels.get(b), intersectionCount(bits[b], filter));
+        }
+        return counts;
+    }
+
+    private static int intersectionCount(BitSet a, BitSet b) {
+        BitSet copy = (BitSet) a.clone();
+        copy.and(b);
+        return copy.cardinality();
+    }
+
+    private static int priceBucket(long cents) {
+        for (int b = 0; b < PRICE_BOUNDS.length; b++) {
+            if (cents < PRICE_BOUNDS[b] * 100L) return b;
+        }
+        return PRICE_BOUNDS.length;
+    }
+
+    private static int durationBucket(Integer minutes) {
+        if (minutes == null || minutes <= 0) return DURATION_BUCKETS.size() - 1;
+        for (int b = 0; b < DURATION_BOUNDS.length; b++) {
+            if (minutes <= DURATION_BOUNDS[b]) return b;
+        }
+        return DURATION_BOUNDS.length;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= ids.length) return;
+        int capacity = Math.max(needed, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        priceCents = Arrays.copyOf(priceCents, capacity);
+        formatOf = Arrays.copyOf(formatOf, capacity);
+        priceBucketOf = Arrays.copyOf(priceBucketOf, capacity);
+        durationBucketOf = Arrays.copyOf(durationBucketOf, capacity);
+    }
+
+    private static BitSet[] newBitSets(int n) {
+        BitSet[] sets = new BitSet[n];
+        for (int i = 0; i < n; i++) sets[i] = new BitSet();
+        return sets;
+    }
+}
@@ -0,0 +1,73 @@
+package com.skillverse.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+
+/**
+ * Set of dense ordinals that stores itself as a sorted int array while sparse
+ * and switches to a {@link BitSet} once that is the smaller representation
+ * (more than one member per 32 ordinals of universe). Most skills are rare,
+ * and a plain BitSet per skill would cost universe/8 bytes even for a single
+ * member. Not thread-safe; owners guard access.
+ */
+final class OrdinalSet {
+
+    private int[] sparse = new int[0];
+    private int size;
+    private BitSet dense;
+
+    int size() { return size; }
+
+    void add(int ordinal, int universe) {
+        if (dense != null) {
+            if (!dense.get(ordinal)) { dense.set(ordinal); size++; }
+            return;
+        }
+        int pos = Arrays.binarySearch(sparse, 0, size, ordinal);
+        if (pos >= 0) return;
+        int insertAt = -pos - 1;
+        if (size == sparse.length) sparse = Arrays.copyOf(sparse, Math.max(4, size * 2));
+        System.arraycopy(sparse, insertAt, sparse, insertAt + 1, size - insertAt);
+        sparse[insertAt] = ordinal;
+        size++;
+        if ((long) size * 32 > universe) {
+            dense = new BitSet(universe);
+            for (int i = 0; i < size; i++) dense.set(sparse[i]);
+            sparse = null;
+        }
+    }
+
+    void remove(int ordinal) {
+        if (dense != null) {
+            if (dense.get(ordinal)) { dense.clear(ordinal); size--; }
+            return;
+        }
+        int pos = Arrays.binarySearch(sparse, 0, size, ordinal);
+        if (pos < 0) return;
+        System.arraycopy(sparse, pos + 1, sparse, pos, size - pos - 1);
+        size--;
+    }
+
+    /** target |= this */
+    void orInto(BitSet target) {
+        if (dense != null) {
+            target.or(dense);
+        } else {
+            for (int i = 0; i < size; i++) target.set(sparse[i]);
+        }
+    }
+
+    /** Calls {@code action} for every member that is also set in {@code filter}. */
+    void forEachIn(BitSet filter, IntConsumer action) {
+        if (dense != null) {
+            BitSet both = (BitSet) dense.clone();
+            both.and(filter);
+            for (int o = both.nextSetBit(0); o >= 0; o = both.nextSetBit(o + 1)) action.accept(o);
+        } else {
+            for (int i = 0; i < size; i++) {
+                if (filter.get(sparse[i])) action.accept(sparse[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.skillverse.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted list of document ids with a per-document term weight, kept in two
+ * parallel primitive arrays instead of boxed collections. Not thread-safe;
+ * {@link InvertedIndex} guards access.
+ */
+final class PostingList {
+
+    private long[] ids = new long[4];
+    private short[] weights = new short[4];
+    private int size;
+
+    int size() { return size; }
+
+    long idAt(int i) { return ids[i]; }
+
+    int weightAt(int i) { return weights[i]; }
+
+    /** Inserts or replaces the posting for {@code id}. */
+    void put(long id, int weight) {
+        short w = (short) Math.min(weight, Short.MAX_VALUE);
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) {
+            weights[pos] = w;
+            return;
+        }
+        int insertAt = -pos - 1;
+        if (size == ids.length) {
+            int capacity = size + (size >> 1) + 1;
+            ids = Arrays.copyOf(ids, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        System.arraycopy(weights, insertAt, weights, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        weights[insertAt] = w;
+        size++;
+    }
+
+    void remove(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) return;
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        System.arraycopy(weights, pos + 1, weights, pos, size - pos - 1);
+        size--;
+    }
+
+    /** Returns the weight for {@code id}, or -1 when the id is not posted. */
+    int weightOf(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        return pos >= 0 ? weights[pos] : -1;
+    }
+}
@@ -0,0 +1,208 @@
+package com.skillverse.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Weighted completion index: a path-compressed (radix) trie over normalized
+ * keys where every node caches the ids of the {@code k} heaviest terms below
+ * it. A lookup is a walk down the prefix plus a copy of one small array, so
+ * its cost does not depend on how many completions exist.
+ */
+public class PrefixIndex {
+
+    /** A completion and how many times it was added. */
+    public record Completion(String text, int weight) {}
+
+    private static final class Node {
+        char[] label;
+        Node[] children = new Node[0];
+        int term = -1;
+        int[] top = new int[0];
+
+        Node(char[] label) { this.label = label; }
+    }
+
+    private final int k;
+    private final Node root = new Node(new char[0]);
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<String> display = new ArrayList<>();
+    private int[] weights = new int[16];
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public PrefixIndex(int k) {
+        this.k = k;
+    }
+
+    /** Adds {@code delta} (which may be negative) to the weight of {@code text}. */
+    public void add(String text, int delta) {
+        String key = TextNormalizer.normalize(text);
+        if (key.isEmpty() || delta == 0) return;
+        lock.writeLock().lock();
+        try {
+            Integer termId = termIds.get(key);
+            if (termId == null) {
+                if (delta < 0) return;
+                termId = display.size();
+                termIds.put(key, termId);
+                display.add(text.trim());
+                if (termId == weights.length) weights = Arrays.copyOf(weights, weights.length * 2);
+            }
+            weights[termId] = Math.max(0, weights[termId] + delta);
+
+            List<Node> path = insert(key.toCharArray(), termId);
+            if (delta > 0) {
+                for (Node node : path) promote(node, termId);
+            } else {
+                // A weight went down, so something below may now outrank it: rebuild bottom-up
+                for (int i = path.size() - 1; i >= 0; i--) recompute(path.get(i));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Returns up to {@code limit} (capped at k) completions of {@code prefix}, heaviest first. */
+    public List<Completion> complete(String prefix, int limit) {
+        char[] key = TextNormalizer.normalize(prefix).toCharArray();
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int pos = 0;
+            while (pos < key.length) {
+                Node child = childFor(node, key[pos]);
+                if (child == null) return List.of();
+                int matched = commonPrefix(child.label, key, pos);
+                if (matched < child.label.length && pos + matched < key.length) return List.of();
+                pos += matched;
+                node = child;
+            }
+            List<Completion> result = new ArrayList<>();
+            for (int termId : node.top) {
+                if (result.size() == limit) break;
+                if (weights[termId] > 0) result.add(new Completion(display.get(termId), weights[termId]));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Inserts the key if needed and returns the nodes from root to its terminal node. */
+    private List<Node> insert(char[] key, int termId) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int pos = 0;
+        while (pos < key.length) {
+            Node child = childFor(node, key[pos]);
+            if (child == null) {
+                Node leaf = new Node(Arrays.copyOfRange(key, pos, key.length));
+                addChild(node, leaf);
+                node = leaf;
+                pos = key.length;
+            } else {
+                int matched = commonPrefix(child.label, key, pos);
+                if (matched < child.label.length) {
+                    // Split the edge: the new middle node covers exactly the old child's subtree
+                    Node middle = new Node(Arrays.copyOf(child.label, matched));
+                    child.label = Arrays.copyOfRange(child.label, matched, child.label.length);
+                    middle.children = new Node[] { child };
+                    middle.top = child.top.clone();
+                    replaceChild(node, child, middle);
+                    child = middle;
+                }
+                node = child;
+                pos += matched;
+            }
+            path.add(node);
+        }
+        node.term = termId;
+        return path;
+    }
+
+    private void promote(Node node, int termId) {
+        int[] top = node.top;
+        int existing = -1;
+        for (int i = 0; i < top.length; i++) {
+            if (top[i] == termId) { existing = i; break; }
+        }
+        if (existing < 0) {
+            if (top.length == k && !outranks(termId, top[k - 1])) return;
+            top = Arrays.copyOf(top, Math.min(k, top.length + 1));
+            existing = top.length - 1;
+            top[existing] = termId;
+        }
+        // Bubble towards the front; the rest of the array is already ordered
+        while (existing > 0 && outranks(top[existing], top[existing - 1])) {
+            int tmp = top[existing - 1];
+            top[existing - 1] = top[existing];
+            top[existing] = tmp;
+            existing--;
+        }
+        node.top = top;
+    }
+
+    private void recompute(Node node) {
+        List<Integer> candidates = new ArrayList<>();
+        if (node.term >= 0) candidates.add(node.term);
+        for (Node child : node.children) {
+            for (int termId : child.top) candidates.add(termId);
+        }
+        node.top = candidates.stream().distinct()
+                .filter(t -> weights[t] > 0)
+                .sorted((a, b) -> outranks(a, b) ? -1 : outranks(b, a) ? 1 : 0)
+                .limit(k)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private boolean outranks(int a, int b) {
+        if (weights[a] != weights[b]) return weights[a] > weights[b];
+        return display.get(a).compareTo(display.get(b)) < 0;
+    }
+
+    private static Node childFor(Node node, char c) {
+        int lo = 0, hi = node.children.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char first = node.children[mid].label[0];
+            if (first < c) lo = mid + 1;
+            else if (first > c) hi = mid - 1;
+            else return node.children[mid];
+        }
+        return null;
+    }
+
+    private static void addChild(Node node, Node child) {
+        Node[] children = Arrays.copyOf(node.children, node.children.length + 1);
+        int i = children.length - 1;
+        while (i > 0 && children[i - 1].label[0] > child.label[0]) {
+            children[i] = children[i - 1];
+            i--;
+        }
+        children[i] = child;
+        node.children = children;
+    }
+
+    private static void replaceChild(Node node, Node original, Node replacement) {
+        for (int i = 0; i < node.children.length; i++) {
+            if (node.children[i] == original) {
+                node.children[i] = replacement;
+                return;
+            }
+        }
+    }
+
+    private static int commonPrefix(char[] label, char[] key, int from) {
+        int n = Math.min(label.length, key.length - from);
+        int i = 0;
+        while (i < n && label[i] == key[from + i]) i++;
+        return i;
+    }
+}
@@ -0,0 +1,85 @@
+package com.skillverse.search;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Running listing-price statistics keyed by title keyword. Every listing
+ * contributes to each distinct token of its title and to each adjacent token
+ * pair ("electric guitar"), so one- and two-word skill queries are a single
+ * map lookup. Median and p90 come from a {@link QuantileSketch} and are
+ * accurate to {@link #RELATIVE_ACCURACY}; count, min, max and mean are exact.
+ */
+public class PriceStatistics {
+
+    public static final double RELATIVE_ACCURACY = 0.01;
+    private static final int MAX_KEY_TOKENS = 2;
+
+    public record Summary(long count, BigDecimal min, BigDecimal max, double average, BigDecimal median, BigDecimal p90) {}
+
+    private final Map<String, Stats> byKey = new ConcurrentHashMap<>();
+
+    public void add(String title, BigDecimal price) {
+        if (price == null) return;
+        for (String key : keysOf(title)) {
+            byKey.computeIfAbsent(key, k -> new Stats()).add(price);
+        }
+    }
+
+    /**
+     * Statistics for a skill query, if it is a keyword or keyword pair that
+     * this index tracks; empty means the caller has to answer it another way.
+     */
+    public Optional<Summary> lookup(String skill) {
+        List<String> tokens = TextNormalizer.tokenize(skill);
+        if (tokens.isEmpty() || tokens.size() > MAX_KEY_TOKENS) return Optional.empty();
+        Stats stats = byKey.get(String.join(" ", tokens));
+        return stats == null ? Optional.empty() : Optional.of(stats.summary());
+    }
+
+    public int keyCount() {
+        return byKey.size();
+    }
+
+    /** The keys a listing with this title is counted under: its tokens and adjacent token pairs. */
+    public static Set<String> keysOf(String title) {
+        List<String> tokens = TextNormalizer.tokenize(title);
+        Set<String> keys = new LinkedHashSet<>(tokens);
+        for (int i = 0; i + 1 < tokens.size(); i++) {
+            keys.add(tokens.get(i) + " " + tokens.get(i + 1));
+        }
+        return keys;
+    }
+
+    private static final class Stats {
+        private long count;
+        private BigDecimal min;
+        private BigDecimal max;
+        private BigDecimal sum = BigDecimal.ZERO;
+        private final QuantileSketch sketch = new QuantileSketch(RELATIVE_ACCURACY);
+
+        synchronized void add(BigDecimal price) {
+            count++;
+            min = min == null || price.compareTo(min) < 0 ? price : min;
+            max = max == null || price.compareTo(max) > 0 ? price : max;
+            sum = sum.add(price);
+            sketch.add(price.doubleValue());
+        }
+
+        synchronized Summary summary() {
+            return new Summary(count, min, max, sum.doubleValue() / count, quantile(0.5), quantile(0.9));
+        }
+
+        // Sketch values are bucket midpoints; keep them inside the exact range
+        private BigDecimal quantile(double q) {
+            BigDecimal value = BigDecimal.valueOf(sketch.quantile(q)).setScale(2, RoundingMode.HALF_UP);
+            return value.max(min).min(max);
+        }
+    }
+}
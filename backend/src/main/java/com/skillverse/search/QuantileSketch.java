@@ -0,0 +1,88 @@
+package com.skillverse.search;
+
+/**
+ * Log-bucketed quantile sketch (DDSketch-style) for non-negative values. A
+ * value x lands in bucket ceil(log_gamma(x)) with gamma = (1 + a) / (1 - a),
+ * so every quantile is returned within relative error {@code a} of a true
+ * sample, using one counter per occupied bucket span. Two sketches with the
+ * same accuracy merge by adding bucket counts. Not thread-safe.
+ */
+public class QuantileSketch {
+
+    // Values below this are counted as zero (free sessions, rounding noise)
+    private static final double MIN_POSITIVE = 1e-6;
+
+    private final double relativeAccuracy;
+    private final double logGamma;
+    private int[] counts = new int[0];
+    private int offset;          // bucket index of counts[0]
+    private long zeroCount;
+    private long total;
+
+    public QuantileSketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("relativeAccuracy must be in (0, 1)");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.logGamma = Math.log((1 + relativeAccuracy) / (1 - relativeAccuracy));
+    }
+
+    public long count() { return total; }
+
+    public void add(double value) {
+        if (value < 0 || Double.isNaN(value)) throw new IllegalArgumentException("value must be >= 0");
+        total++;
+        if (value < MIN_POSITIVE) {
+            zeroCount++;
+            return;
+        }
+        int index = (int) Math.ceil(Math.log(value) / logGamma);
+        grow(index, index);
+        counts[index - offset]++;
+    }
+
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches with different accuracy");
+        }
+        if (other.total == 0) return;
+        total += other.total;
+        zeroCount += other.zeroCount;
+        if (other.counts.length == 0) return;
+        grow(other.offset, other.offset + other.counts.length - 1);
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[other.offset + i - offset] += other.counts[i];
+        }
+    }
+
+    /** Value at quantile {@code q} in [0, 1], or NaN when empty. */
+    public double quantile(double q) {
+        if (total == 0) return Double.NaN;
+        long rank = (long) Math.floor(q * (total - 1));
+        if (rank < zeroCount) return 0.0;
+        long seen = zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                // Midpoint of the bucket in relative terms: 2 * gamma^i / (gamma + 1)
+                return 2 * Math.exp((offset + i) * logGamma) / (Math.exp(logGamma) + 1);
+            }
+        }
+        return 2 * Math.exp((offset + counts.length - 1) * logGamma) / (Math.exp(logGamma) + 1);
+    }
+
+    private void grow(int low, int high) {
+        if (counts.length == 0) {
+            offset = low;
+            counts = new int[high - low + 1];
+            return;
+        }
+        int newLow = Math.min(low, offset);
+        int newHigh = Math.max(high, offset + counts.length - 1);
+        if (newLow == offset && newHigh == offset + counts.length - 1) return;
+        int[] resized = new int[newHigh - newLow + 1];
+        System.arraycopy(counts, 0, resized, offset - newLow, counts.length);
+        counts = resized;
+        offset = newLow;
+    }
+}
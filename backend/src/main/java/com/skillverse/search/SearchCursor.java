@@ -0,0 +1,31 @@
+package com.skillverse.search;
+
+import com.skillverse.search.InvertedIndex.Hit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for ranked result sections. It records the last hit's
+ * position in ranking order (edits, exact score bits, id), so the next page
+ * continues after that hit instead of re-ranking and skipping an offset.
+ */
+public final class SearchCursor {
+
+    private SearchCursor() {}
+
+    public static String encode(Hit hit) {
+        String raw = hit.edits() + ":" + Long.toHexString(Double.doubleToLongBits(hit.score())) + ":" + hit.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Returns null for a null/blank cursor; throws IllegalArgumentException if it is malformed. */
+    public static Hit decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+        if (parts.length != 3) throw new IllegalArgumentException("Malformed search cursor");
+        return new Hit(Long.parseLong(parts[2]),
+                Double.longBitsToDouble(Long.parseUnsignedLong(parts[1], 16)),
+                Integer.parseInt(parts[0]));
+    }
+}
@@ -0,0 +1,137 @@
+package com.skillverse.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Reciprocal skill-swap matcher. Skills are dictionary-encoded, users get
+ * dense ordinals, and each skill keeps one set of users offering it and one of
+ * users wanting it. "Who can teach me?" is the union of the offered-sets of
+ * my wanted skills, "who wants what I teach?" the union of the wanted-sets of
+ * my offered skills, and a reciprocal match is their intersection. Overlap
+ * scoring then only visits those candidates.
+ */
+public class SkillMatchIndex {
+
+    public enum Mode { RECIPROCAL, TEACHERS, LEARNERS }
+
+    /** A candidate and the skills that connect them to the asking user. */
+    public record Match(long userId, List<String> canTeachYou, List<String> wantsFromYou) {
+        public int score() { return canTeachYou.size() + wantsFromYou.size(); }
+    }
+
+    private final Map<String, Integer> skillIds = new HashMap<>();
+    private final List<String> skillNames = new ArrayList<>();
+    private final List<OrdinalSet> offeredBy = new ArrayList<>();
+    private final List<OrdinalSet> wantedBy = new ArrayList<>();
+
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private long[] userIds = new long[64];
+    private int[][] offeredOf = new int[64][];
+    private int[][] wantedOf = new int[64][];
+    private int users;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(long userId, Collection<String> offered, Collection<String> wanted) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(userId);
+            if (ordinal == null) {
+                ordinal = users++;
+                if (ordinal == userIds.length) {
+                    userIds = Arrays.copyOf(userIds, ordinal * 2);
+                    offeredOf = Arrays.copyOf(offeredOf, ordinal * 2);
+                    wantedOf = Arrays.copyOf(wantedOf, ordinal * 2);
+                }
+                ordinals.put(userId, ordinal);
+                userIds[ordinal] = userId;
+            } else {
+                for (int s : offeredOf[ordinal]) offeredBy.get(s).remove(ordinal);
+                for (int s : wantedOf[ordinal]) wantedBy.get(s).remove(ordinal);
+            }
+            offeredOf[ordinal] = encode(offered);
+            wantedOf[ordinal] = encode(wanted);
+            // Size the dense form for the universe we expect to grow into
+            int universe = Math.max(1024, userIds.length);
+            for (int s : offeredOf[ordinal]) offeredBy.get(s).add(ordinal, universe);
+            for (int s : wantedOf[ordinal]) wantedBy.get(s).add(ordinal, universe);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Best matches for {@code userId}, highest skill overlap first. */
+    public List<Match> match(long userId, Mode mode, int limit) {
+        lock.readLock().lock();
+        try {
+            Integer me = ordinals.get(userId);
+            if (me == null) return List.of();
+            int[] myOffered = offeredOf[me];
+            int[] myWanted = wantedOf[me];
+
+            BitSet teachers = new BitSet(users);
+            for (int s : myWanted) offeredBy.get(s).orInto(teachers);
+            BitSet learners = new BitSet(users);
+            for (int s : myOffered) wantedBy.get(s).orInto(learners);
+
+            BitSet candidates = switch (mode) {
+                case TEACHERS -> teachers;
+                case LEARNERS -> learners;
+                case RECIPROCAL -> {
+                    BitSet both = (BitSet) teachers.clone();
+                    both.and(learners);
+                    yield both;
+                }
+            };
+            candidates.clear(me);
+            if (candidates.isEmpty()) return List.of();
+
+            Map<Integer, Integer> overlap = new HashMap<>();
+            for (int s : myWanted) offeredBy.get(s).forEachIn(candidates, o -> overlap.merge(o, 1, Integer::sum));
+            for (int s : myOffered) wantedBy.get(s).forEachIn(candidates, o -> overlap.merge(o, 1, Integer::sum));
+
+            return overlap.entrySet().stream()
+                    .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(e -> new Match(userIds[e.getKey()],
+                            shared(offeredOf[e.getKey()], myWanted),
+                            shared(wantedOf[e.getKey()], myOffered)))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] encode(Collection<String> skills) {
+        return skills.stream()
+                .map(TextNormalizer::normalize)
+                .filter(s -> !s.isEmpty())
+                .distinct()
+                .mapToInt(key -> skillIds.computeIfAbsent(key, k -> {
+                    skillNames.add(k);
+                    offeredBy.add(new OrdinalSet());
+                    wantedBy.add(new OrdinalSet());
+                    return skillNames.size() - 1;
+                }))
+                .sorted()
+                .toArray();
+    }
+
+    private List<String> shared(int[] theirs, int[] mine) {
+        List<String> names = new ArrayList<>();
+        for (int s : theirs) {
+            if (Arrays.binarySearch(mine, s) >= 0) names.add(skillNames.get(s));
+        }
+        names.sort(Comparator.naturalOrder());
+        return names;
+    }
+}
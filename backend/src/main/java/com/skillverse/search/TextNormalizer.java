@@ -0,0 +1,42 @@
+package com.skillverse.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Shared text folding for everything that indexes or looks up free text
+ * (search, suggestions, price stats, skill matching). Keeping it in one place
+ * means "Café", "cafe" and " CAFE " always land on the same key.
+ */
+public final class TextNormalizer {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // '+' and '#' are kept so "C++" and "C#" stay distinct tokens
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}+#]+");
+
+    private TextNormalizer() {}
+
+    /** Case-folds, strips accents and collapses whitespace. Never returns null. */
+    public static String normalize(String text) {
+        if (text == null) return "";
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        folded = COMBINING_MARKS.matcher(folded).replaceAll("");
+        folded = folded.toLowerCase(Locale.ROOT).trim();
+        return WHITESPACE.matcher(folded).replaceAll(" ");
+    }
+
+    /** Splits normalized text into index terms. */
+    public static List<String> tokenize(String text) {
+        String normalized = normalize(text);
+        List<String> tokens = new ArrayList<>();
+        if (normalized.isEmpty()) return tokens;
+        for (String token : TOKEN_SEPARATOR.split(normalized)) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        return tokens;
+    }
+}
@@ -3,9 +3,11 @@ package com.skillverse.service;
 
 import com.skillverse.config.security.JwtTokenProvider;
 import com.skillverse.dto.AuthDtos.*;
+import com.skillverse.event.UserProfileChangedEvent;
 import com.skillverse.model.entity.User;
 import com.skillverse.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -24,6 +26,10 @@ public class AuthService {
     private PasswordEncoder passwordEncoder;
     @Autowired
     private JwtTokenProvider tokenProvider;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private LedgerService ledgerService;
 
     public String login(LoginRequest loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
@@ -38,6 +44,9 @@ public class AuthService {
             throw new IllegalArgumentException("Email Address already in use!");
         }
         User user = new User(signUpRequest.name(), signUpRequest.email(), passwordEncoder.encode(signUpRequest.password()));
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        ledgerService.openAccount(saved);
+        eventPublisher.publishEvent(new UserProfileChangedEvent(saved));
+        return saved;
     }
 }
@@ -65,9 +65,14 @@ public class AvailabilityService {
         return slot;
     }
 
-    public AvailabilitySlot markReserved(AvailabilitySlot slot) {
-        slot.setReserved(true);
-        return repo.save(slot);
+    /**
+     * Atomically reserves the slot if it is still open and in the future.
+     *
+     * @return true if this call reserved it, false if someone else got there first
+     */
+    @Transactional
+    public boolean tryReserve(Long slotId) {
+        return repo.reserveIfOpen(slotId, LocalDateTime.now()) == 1;
     }
 
     private SlotResponse toDto(AvailabilitySlot s) {
@@ -1,31 +1,62 @@
 package com.skillverse.service;
 
+import com.skillverse.dto.BookingDtos.BookingPageResponse;
+import com.skillverse.dto.BookingDtos.BookingResponseDto;
+import com.skillverse.dto.BookingDtos.DecisionOutcome;
+import com.skillverse.event.BookingStatusChangedEvent;
 import com.skillverse.exception.InsufficientFundsException;
 import com.skillverse.exception.InvalidOperationException;
 import com.skillverse.exception.ResourceNotFoundException;
 import com.skillverse.model.entity.*;
 import com.skillverse.model.enums.BookingStatus;
-import com.skillverse.model.enums.TransactionType;
 import com.skillverse.repository.BookingRepository;
 import com.skillverse.repository.ListingRepository;
-import com.skillverse.repository.TransactionRepository;
 import com.skillverse.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class BookingService {
 
+    private static final String INSUFFICIENT_FUNDS_MESSAGE = "Learner does not have enough tokens. Booking rejected.";
+
     @Autowired private BookingRepository bookingRepository;
     @Autowired private ListingRepository listingRepository;
     @Autowired private UserRepository userRepository;
-    @Autowired private TransactionRepository transactionRepository;
     @Autowired private NotificationService notificationService;
     @Autowired private AvailabilityService availabilityService;
+    @Autowired private EscrowService escrowService;
+    @Autowired private LedgerService ledgerService;
+    @Autowired private ConcurrencyRetry concurrencyRetry;
+    @Autowired private ApplicationEventPublisher eventPublisher;
+
+    @Value("${bookings.page.max-size:100}")
+    private int maxPageSize;
+    @Value("${bookings.batch.max-size:100}")
+    private int maxBatchSize;
+
+    /** What {@link #decideBatch} did with one booking; {@code booking} is null when it was left unchanged. */
+    public record Decision(Long bookingId, DecisionOutcome outcome, String message, Booking booking) {}
 
     @Transactional
     public Booking createBookingFromSlot(String learnerEmail, Long slotId, Long listingId) {
@@ -40,7 +71,9 @@ public class BookingService {
             throw new InvalidOperationException("You cannot book your own listing.");
         }
 
-        availabilityService.markReserved(slot);
+        if (!availabilityService.tryReserve(slot.getId())) {
+            throw new IllegalStateException("Slot already reserved");
+        }
 
         Booking booking = new Booking();
         booking.setLearner(learner);
@@ -87,70 +120,204 @@ public class BookingService {
         return savedBooking;
     }
 
-    @Transactional
+    // Status changes and escrow movements below run through concurrencyRetry: a transaction that
+    // loses an optimistic-lock race is re-run from scratch and re-validates the booking's state.
     public Booking acceptBooking(Long bookingId, String teacherEmail) {
+        return concurrencyRetry.inTransaction("booking.accept", status -> doAcceptBooking(bookingId, teacherEmail));
+    }
+
+    private Booking doAcceptBooking(Long bookingId, String teacherEmail) {
         User teacher = userRepository.findByEmail(teacherEmail).orElseThrow(() -> new ResourceNotFoundException("User", "email", teacherEmail));
         Booking booking = findAndValidateBookingForTeacher(bookingId, teacher.getId(), BookingStatus.PENDING);
 
         User learner = booking.getLearner();
         BigDecimal price = booking.getListing().getTokenPrice();
-        User escrowUser = userRepository.findByEmail("escrow@system.internal").orElseThrow(() -> new IllegalStateException("Escrow user not found!"));
-
-        if (learner.getTokenBalance().compareTo(price) < 0) {
+        // Version read before the balance: if another debit of this learner commits in between, the bump below fails
+        long accountVersion = userRepository.findVersionById(learner.getId());
+        if (ledgerService.balanceOf(learner.getId()).compareTo(price) < 0) {
             booking.setStatus(BookingStatus.REJECTED);
             Booking savedBooking = bookingRepository.save(booking);
-            notificationService.create(
-                    learner,
-                    Notification.Type.BOOKING_REJECTED, // <-- THE FIX
-                    "Booking Rejected",
-                    "Your request for '" + booking.getListing().getTitle() + "' was rejected due to insufficient funds.",
-                    savedBooking
-            );
-            throw new InsufficientFundsException("Learner does not have enough tokens. Booking rejected.");
+            notifyInsufficientFunds(savedBooking);
+            throw new InsufficientFundsException(INSUFFICIENT_FUNDS_MESSAGE);
         }
 
-        learner.setTokenBalance(learner.getTokenBalance().subtract(price));
-        transactionRepository.save(new Transaction(learner, TransactionType.DEBIT, price, booking, "Escrow for Booking #" + bookingId));
-
-        escrowUser.setTokenBalance(escrowUser.getTokenBalance().add(price));
-        transactionRepository.save(new Transaction(escrowUser, TransactionType.CREDIT, price, booking, "Escrow for Booking #" + bookingId));
-
-        userRepository.save(learner);
-        userRepository.save(escrowUser);
+        if (userRepository.bumpVersion(learner.getId(), accountVersion) == 0) {
+            throw new OptimisticLockingFailureException("Account " + learner.getId() + " was debited concurrently");
+        }
+        escrowService.hold(booking);
 
         booking.setStatus(BookingStatus.CONFIRMED);
         Booking savedBooking = bookingRepository.save(booking);
-
-        notificationService.create(
-                learner,
-                Notification.Type.BOOKING_ACCEPTED, // <-- THE FIX
-                "Booking Accepted!",
-                teacher.getName() + " has accepted your request for '" + booking.getListing().getTitle() + "'.",
-                savedBooking
-        );
+        publishStatusChange(savedBooking);
+        notifyAccepted(teacher, savedBooking);
 
         return savedBooking;
     }
 
-    @Transactional
     public Booking rejectBooking(Long bookingId, String teacherEmail) {
+        return concurrencyRetry.inTransaction("booking.reject", status -> doRejectBooking(bookingId, teacherEmail));
+    }
+
+    private Booking doRejectBooking(Long bookingId, String teacherEmail) {
         User teacher = userRepository.findByEmail(teacherEmail).orElseThrow(() -> new ResourceNotFoundException("User", "email", teacherEmail));
         Booking booking = findAndValidateBookingForTeacher(bookingId, teacher.getId(), BookingStatus.PENDING);
         booking.setStatus(BookingStatus.REJECTED);
 
         Booking savedBooking = bookingRepository.save(booking);
+        publishStatusChange(savedBooking);
+        notifyRejected(teacher, savedBooking);
+        return savedBooking;
+    }
+
+    /**
+     * Accepts and rejects several of the teacher's pending bookings in one
+     * transaction, e.g. when triaging a queue of requests.
+     *
+     * <p>The bookings, the learners' account versions and their balances are
+     * each read with one query. Each learner's accepted bookings are charged
+     * oldest first until their balance runs out; the rest are rejected for
+     * insufficient funds. Escrow for all of them is then posted as one batch.
+     * A booking that cannot be decided (missing, another teacher's, no longer
+     * pending) is reported and left as it is instead of failing the batch.
+     *
+     * @return one decision per requested booking, accepts first, in request order
+     */
+    public List<Decision> decideBatch(String teacherEmail, List<Long> acceptIds, List<Long> rejectIds) {
+        List<Long> accept = acceptIds == null ? List.of() : acceptIds;
+        List<Long> reject = rejectIds == null ? List.of() : rejectIds;
+        if (accept.size() + reject.size() > maxBatchSize) {
+            throw new InvalidOperationException("At most " + maxBatchSize + " bookings can be decided at once.");
+        }
+        return concurrencyRetry.inTransaction("booking.batch", status -> doDecideBatch(teacherEmail, accept, reject));
+    }
+
+    private List<Decision> doDecideBatch(String teacherEmail, List<Long> acceptIds, List<Long> rejectIds) {
+        User teacher = userRepository.findByEmail(teacherEmail).orElseThrow(() -> new ResourceNotFoundException("User", "email", teacherEmail));
+
+        // true = accept; a booking listed more than once is decided the first time only
+        Map<Long, Boolean> requested = new LinkedHashMap<>();
+        List<Decision> duplicates = new ArrayList<>();
+        for (Long id : acceptIds) {
+            if (requested.putIfAbsent(id, true) != null) duplicates.add(unchanged(id, DecisionOutcome.NOT_ALLOWED, "Booking is listed more than once."));
+        }
+        for (Long id : rejectIds) {
+            if (requested.putIfAbsent(id, false) != null) duplicates.add(unchanged(id, DecisionOutcome.NOT_ALLOWED, "Booking is listed more than once."));
+        }
+        Map<Long, Booking> bookings = requested.isEmpty() ? Map.of() : bookingRepository.findAllWithPartiesByIdIn(requested.keySet()).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        Map<Long, Decision> decisions = new HashMap<>();
+        List<Booking> toAccept = new ArrayList<>();
+        List<Booking> changed = new ArrayList<>();
+        for (Map.Entry<Long, Boolean> request : requested.entrySet()) {
+            Long id = request.getKey();
+            Booking booking = bookings.get(id);
+            if (booking == null) {
+                decisions.put(id, unchanged(id, DecisionOutcome.NOT_FOUND, "Booking not found."));
+            } else if (!booking.getListing().getTeacher().getId().equals(teacher.getId())) {
+                decisions.put(id, unchanged(id, DecisionOutcome.NOT_ALLOWED, "You are not the teacher for this booking."));
+            } else if (booking.getStatus() != BookingStatus.PENDING) {
+                decisions.put(id, unchanged(id, DecisionOutcome.NOT_ALLOWED, "This booking cannot be modified in its current state."));
+            } else if (request.getValue()) {
+                toAccept.add(booking);
+            } else {
+                booking.setStatus(BookingStatus.REJECTED);
+                changed.add(booking);
+                decisions.put(id, new Decision(id, DecisionOutcome.REJECTED, null, booking));
+            }
+        }
+
+        Map<Long, List<Booking>> acceptsByLearner = toAccept.stream()
+                .sorted(Comparator.comparing(Booking::getId))
+                .collect(Collectors.groupingBy(b -> b.getLearner().getId(), LinkedHashMap::new, Collectors.toList()));
+        List<Booking> funded = new ArrayList<>();
+        if (!acceptsByLearner.isEmpty()) {
+            // Versions read before balances, as in acceptBooking, so a concurrent debit fails the bumps below
+            Map<Long, Long> accountVersions = userRepository.findVersionsByIdIn(acceptsByLearner.keySet()).stream()
+                    .collect(Collectors.toMap(UserRepository.AccountVersion::getId, UserRepository.AccountVersion::getVersion));
+            Map<Long, BigDecimal> balances = ledgerService.balancesOf(acceptsByLearner.keySet());
+
+            for (Map.Entry<Long, List<Booking>> learnerAccepts : acceptsByLearner.entrySet()) {
+                Long learnerId = learnerAccepts.getKey();
+                BigDecimal remaining = balances.getOrDefault(learnerId, BigDecimal.ZERO);
+                boolean debited = false;
+                for (Booking booking : learnerAccepts.getValue()) {
+                    BigDecimal price = booking.getListing().getTokenPrice();
+                    if (remaining.compareTo(price) >= 0) {
+                        remaining = remaining.subtract(price);
+                        booking.setStatus(BookingStatus.CONFIRMED);
+                        funded.add(booking);
+                        debited = true;
+                        decisions.put(booking.getId(), new Decision(booking.getId(), DecisionOutcome.ACCEPTED, null, booking));
+                    } else {
+                        booking.setStatus(BookingStatus.REJECTED);
+                        decisions.put(booking.getId(), new Decision(booking.getId(), DecisionOutcome.INSUFFICIENT_FUNDS, INSUFFICIENT_FUNDS_MESSAGE, booking));
+                    }
+                    changed.add(booking);
+                }
+                if (debited && userRepository.bumpVersion(learnerId, accountVersions.get(learnerId)) == 0) {
+                    throw new OptimisticLockingFailureException("Account " + learnerId + " was debited concurrently");
+                }
+            }
+            if (!funded.isEmpty()) escrowService.holdAll(funded);
+        }
+
+        bookingRepository.saveAll(changed);
+        for (Booking booking : changed) {
+            publishStatusChange(booking);
+            switch (decisions.get(booking.getId()).outcome()) {
+                case ACCEPTED -> notifyAccepted(teacher, booking);
+                case REJECTED -> notifyRejected(teacher, booking);
+                case INSUFFICIENT_FUNDS -> notifyInsufficientFunds(booking);
+                default -> { }
+            }
+        }
+
+        List<Decision> results = new ArrayList<>(requested.size() + duplicates.size());
+        requested.keySet().forEach(id -> results.add(decisions.get(id)));
+        results.addAll(duplicates);
+        return Collections.unmodifiableList(results);
+    }
+
+    private static Decision unchanged(Long bookingId, DecisionOutcome outcome, String message) {
+        return new Decision(bookingId, outcome, message, null);
+    }
+
+    private void notifyAccepted(User teacher, Booking booking) {
+        notificationService.create(
+                booking.getLearner(),
+                Notification.Type.BOOKING_ACCEPTED, // <-- THE FIX
+                "Booking Accepted!",
+                teacher.getName() + " has accepted your request for '" + booking.getListing().getTitle() + "'.",
+                booking
+        );
+    }
+
+    private void notifyRejected(User teacher, Booking booking) {
         notificationService.create(
                 booking.getLearner(),
                 Notification.Type.BOOKING_REJECTED, // <-- THE FIX
                 "Booking Rejected",
                 teacher.getName() + " has rejected your request for '" + booking.getListing().getTitle() + "'.",
-                savedBooking
+                booking
+        );
+    }
+
+    private void notifyInsufficientFunds(Booking booking) {
+        notificationService.create(
+                booking.getLearner(),
+                Notification.Type.BOOKING_REJECTED, // <-- THE FIX
+                "Booking Rejected",
+                "Your request for '" + booking.getListing().getTitle() + "' was rejected due to insufficient funds.",
+                booking
         );
-        return savedBooking;
     }
 
-    @Transactional
     public Booking completeBooking(Long bookingId, String userEmail) {
+        return concurrencyRetry.inTransaction("booking.complete", status -> doCompleteBooking(bookingId, userEmail));
+    }
+
+    private Booking doCompleteBooking(Long bookingId, String userEmail) {
         User user = userRepository.findByEmail(userEmail).orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> new ResourceNotFoundException("Booking", "id", bookingId));
 
@@ -161,9 +328,10 @@ public class BookingService {
             throw new InvalidOperationException("This booking cannot be completed in its current state.");
         }
 
-        releaseFunds(booking);
+        escrowService.releaseFunds(booking);
         booking.setStatus(BookingStatus.COMPLETED);
         Booking savedBooking = bookingRepository.save(booking);
+        publishStatusChange(savedBooking);
 
         notificationService.create(
                 booking.getListing().getTeacher(),
@@ -183,8 +351,11 @@ public class BookingService {
         return savedBooking;
     }
 
-    @Transactional
     public Booking openDispute(Long bookingId, String userEmail) {
+        return concurrencyRetry.inTransaction("booking.dispute", status -> doOpenDispute(bookingId, userEmail));
+    }
+
+    private Booking doOpenDispute(Long bookingId, String userEmail) {
         User user = userRepository.findByEmail(userEmail).orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> new ResourceNotFoundException("Booking", "id", bookingId));
 
@@ -200,6 +371,7 @@ public class BookingService {
 
         booking.setStatus(BookingStatus.IN_DISPUTE);
         Booking savedBooking = bookingRepository.save(booking);
+        publishStatusChange(savedBooking);
 
         User otherParty = isLearner ? booking.getListing().getTeacher() : booking.getLearner();
         notificationService.create(
@@ -213,51 +385,13 @@ public class BookingService {
         return savedBooking;
     }
 
-    @Transactional
-    public void autoReleaseEscrow() {
-        LocalDateTime threshold = LocalDateTime.now().minusHours(48);
-        List<Booking> bookingsToRelease = bookingRepository.findAllByStatusAndBookingTimeBefore(BookingStatus.CONFIRMED, threshold);
-
-        for (Booking booking : bookingsToRelease) {
-            releaseFunds(booking);
-            booking.setStatus(BookingStatus.COMPLETED);
-            bookingRepository.save(booking);
-
-            notificationService.create(
-                    booking.getLearner(),
-                    Notification.Type.ESCROW_RELEASED, // <-- THE FIX
-                    "Funds Auto-Released",
-                    "Funds for '" + booking.getListing().getTitle() + "' were automatically released to the teacher after 48 hours.",
-                    booking
-            );
-            notificationService.create(
-                    booking.getListing().getTeacher(),
-                    Notification.Type.ESCROW_RELEASED, // <-- THE FIX
-                    "Funds Auto-Released",
-                    booking.getListing().getTokenPrice() + " tokens for your session with " + booking.getLearner().getName() + " were automatically released.",
-                    booking
-            );
-        }
+    // Runs as a chunked pipeline with its own per-chunk transactions; see EscrowService
+    public int autoReleaseEscrow(ClusterService.Shard shard) {
+        return escrowService.releaseDue(shard);
     }
 
-    private void releaseFunds(Booking booking) {
-        BigDecimal price = booking.getListing().getTokenPrice();
-        User teacher = booking.getListing().getTeacher();
-        User escrowUser = userRepository.findByEmail("escrow@system.internal").orElseThrow(() -> new IllegalStateException("Escrow user not found!"));
-
-        if (escrowUser.getTokenBalance().compareTo(price) < 0) {
-            System.err.println("CRITICAL: Escrow has insufficient funds for booking " + booking.getId());
-            return;
-        }
-
-        escrowUser.setTokenBalance(escrowUser.getTokenBalance().subtract(price));
-        transactionRepository.save(new Transaction(escrowUser, TransactionType.DEBIT, price, booking, "Release funds for Booking #" + booking.getId()));
-
-        teacher.setTokenBalance(teacher.getTokenBalance().add(price));
-        transactionRepository.save(new Transaction(teacher, TransactionType.CREDIT, price, booking, "Payment for Booking #" + booking.getId()));
-
-        userRepository.save(escrowUser);
-        userRepository.save(teacher);
+    private void publishStatusChange(Booking booking) {
+        eventPublisher.publishEvent(new BookingStatusChangedEvent(booking.getId(), booking.getStatus(), booking.getBookingTime()));
     }
 
     private Booking findAndValidateBookingForTeacher(Long bookingId, Long teacherId, BookingStatus expectedStatus) {
@@ -273,4 +407,29 @@ public class BookingService {
 
     public List<Booking> getSentRequests(String learnerEmail) { return bookingRepository.findByLearnerEmail(learnerEmail); }
     public List<Booking> getReceivedRequests(String teacherEmail) { return bookingRepository.findByListing_Teacher_Email(teacherEmail);}
+
+    /** One page of the learner's sent requests, newest first; no statuses means all of them. */
+    public BookingPageResponse getSentPage(String learnerEmail, Set<BookingStatus> statuses, Long cursor, int size) {
+        return page(size, (beforeId, page) -> bookingRepository.findSentPage(learnerEmail, orAll(statuses), beforeId, page), cursor);
+    }
+
+    /** One page of the bookings on the teacher's listings, newest first; no statuses means all of them. */
+    public BookingPageResponse getReceivedPage(String teacherEmail, Set<BookingStatus> statuses, Long cursor, int size) {
+        return page(size, (beforeId, page) -> bookingRepository.findReceivedPage(teacherEmail, orAll(statuses), beforeId, page), cursor);
+    }
+
+    private BookingPageResponse page(int size, BiFunction<Long, Pageable, List<BookingResponseDto>> query, Long cursor) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        // Fetch one extra row to know whether another page exists
+        List<BookingResponseDto> rows = query.apply(cursor == null ? Long.MAX_VALUE : cursor, PageRequest.of(0, pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new BookingPageResponse(rows, null);
+        }
+        List<BookingResponseDto> bookings = rows.subList(0, pageSize);
+        return new BookingPageResponse(bookings, bookings.get(pageSize - 1).id());
+    }
+
+    private static Set<BookingStatus> orAll(Set<BookingStatus> statuses) {
+        return statuses == null || statuses.isEmpty() ? EnumSet.allOf(BookingStatus.class) : statuses;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,174 @@
+package com.skillverse.service;
+
+import com.skillverse.model.entity.NodeHeartbeat;
+import com.skillverse.repository.JobLeaseRepository;
+import com.skillverse.repository.NodeHeartbeatRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coordinates scheduled work across backend replicas through the database.
+ *
+ * <p>Every node heartbeats into {@code node_heartbeats}; nodes seen within
+ * {@code cluster.node-timeout-ms} are live, and a node's position among them
+ * (by id) is its {@link Shard}. Jobs that must not run on several nodes at
+ * once go through {@link #runExclusively}, which holds a row in
+ * {@code job_leases} for the duration of the run. A lease outlives a crashed
+ * holder by at most {@code scheduler.lease.ttl-seconds}.
+ */
+@Service
+public class ClusterService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterService.class);
+
+    /** Shard {@code index} of {@code count}: the rows with {@code id % count == index}. */
+    public record Shard(int index, int count) {
+        public static final Shard ALL = new Shard(0, 1);
+    }
+
+    private final NodeHeartbeatRepository heartbeats;
+    private final JobLeaseRepository leases;
+    private final TransactionTemplate transaction;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId;
+    private final Instant startedAt = Instant.now();
+    private final Duration nodeTimeout;
+    private final Set<String> jobsWithGauges = ConcurrentHashMap.newKeySet();
+    private volatile List<String> liveNodes = List.of();
+
+    public ClusterService(NodeHeartbeatRepository heartbeats,
+                          JobLeaseRepository leases,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${cluster.node-id:}") String nodeId,
+                          @Value("${cluster.node-timeout-ms:30000}") long nodeTimeoutMs) {
+        this.heartbeats = heartbeats;
+        this.leases = leases;
+        this.meterRegistry = meterRegistry;
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.nodeTimeout = Duration.ofMillis(nodeTimeoutMs);
+
+        // Lease and heartbeat writes commit on their own, even when a caller has a transaction open
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        meterRegistry.gauge("cluster.nodes.live", this, cluster -> cluster.liveNodes.size());
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void join() {
+        heartbeat();
+        log.info("Node {} joined; {} live nodes", nodeId, liveNodes.size());
+    }
+
+    @Scheduled(fixedDelayString = "${cluster.heartbeat-interval-ms:10000}", initialDelayString = "${cluster.heartbeat-interval-ms:10000}")
+    public void heartbeat() {
+        Instant now = Instant.now();
+        liveNodes = transaction.execute(status -> {
+            if (heartbeats.touch(nodeId, now) == 0) {
+                heartbeats.save(new NodeHeartbeat(nodeId, startedAt, now));
+            }
+            // Long-gone nodes; ones merely late stay until they are clearly dead
+            heartbeats.deleteStale(now.minus(nodeTimeout.multipliedBy(10)));
+            return heartbeats.findLiveNodeIds(now.minus(nodeTimeout));
+        });
+    }
+
+    @PreDestroy
+    public void leave() {
+        try {
+            transaction.executeWithoutResult(status -> heartbeats.deleteById(nodeId));
+        } catch (RuntimeException e) {
+            log.warn("Could not remove heartbeat of node {} on shutdown", nodeId, e);
+        }
+    }
+
+    /** This node's share of sharded work, from the live nodes as of the last heartbeat. */
+    public Shard currentShard() {
+        List<String> nodes = liveNodes;
+        if (!nodes.contains(nodeId)) {
+            // Our own heartbeat is late; count ourselves in rather than skip our work
+            nodes = new ArrayList<>(nodes);
+            nodes.add(nodeId);
+            Collections.sort(nodes);
+        }
+        return new Shard(nodes.indexOf(nodeId), nodes.size());
+    }
+
+    /**
+     * Runs {@code work} if this node can take the lease on {@code job}, and
+     * releases the lease afterwards.
+     *
+     * @return whether the work ran here
+     */
+    public boolean runExclusively(String job, Duration ttl, Runnable work) {
+        registerLagGauge(job);
+        Instant now = Instant.now();
+        Integer taken = transaction.execute(status -> leases.tryAcquire(job, nodeId, now, now.plus(ttl)));
+        if (taken == null || taken == 0) {
+            meterRegistry.counter("scheduler.job.runs", "job", job, "node", nodeId, "outcome", "skipped").increment();
+            return false;
+        }
+        String outcome = "failed";
+        try {
+            work.run();
+            outcome = "completed";
+        } finally {
+            meterRegistry.counter("scheduler.job.runs", "job", job, "node", nodeId, "outcome", outcome).increment();
+            boolean completed = outcome.equals("completed");
+            transaction.executeWithoutResult(status -> {
+                if (completed) leases.release(job, nodeId, Instant.now());
+                else leases.findById(job).filter(l -> nodeId.equals(l.getOwner())).ifPresent(l -> l.setLeasedUntil(Instant.now()));
+            });
+        }
+        return true;
+    }
+
+    // Seconds since any node last completed the job, read from its lease row
+    private void registerLagGauge(String job) {
+        if (!jobsWithGauges.add(job)) return;
+        Gauge.builder("scheduler.job.since-last-completed", leases, repository -> repository.findById(job)
+                        .map(lease -> lease.getLastCompletedAt() == null ? Double.NaN
+                                : Duration.between(lease.getLastCompletedAt(), Instant.now()).toSeconds())
+                        .orElse(Double.NaN))
+                .tag("job", job)
+                .baseUnit("seconds")
+                .description("Time since the job last completed on any node")
+                .register(meterRegistry);
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
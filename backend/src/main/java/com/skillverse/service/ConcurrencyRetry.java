@@ -0,0 +1,91 @@
+package com.skillverse.service;
+
+import com.skillverse.exception.ConcurrentUpdateException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, jittered retry for transactions that lose an optimistic-lock or
+ * lock-acquisition race on the money paths (booking, escrow, learner account
+ * versions). Each attempt is a fresh transaction that re-reads and re-validates
+ * everything, so a retry either succeeds against the current state or fails
+ * with the same business error a later request would get.
+ *
+ * <p>Backoff doubles from {@code money.retry.initial-backoff-ms} up to
+ * {@code money.retry.max-backoff-ms}, and each sleep is drawn from the upper
+ * half of that window so colliding callers spread out instead of colliding again.
+ */
+@Component
+public class ConcurrencyRetry {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyRetry.class);
+
+    private final TransactionTemplate transaction;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    public ConcurrencyRetry(PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${money.retry.max-attempts:5}") int maxAttempts,
+                            @Value("${money.retry.initial-backoff-ms:20}") long initialBackoffMs,
+                            @Value("${money.retry.max-backoff-ms:500}") long maxBackoffMs) {
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = Math.max(1, initialBackoffMs);
+        this.maxBackoffMs = Math.max(this.initialBackoffMs, maxBackoffMs);
+    }
+
+    /**
+     * Runs {@code work} in its own transaction, retrying the whole transaction on
+     * concurrency failures. Inside a caller's transaction it runs once, as part of
+     * it: only the outermost transaction can be retried.
+     */
+    public <T> T inTransaction(String operation, TransactionCallback<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return transaction.execute(work);
+        }
+        return run(operation, () -> transaction.execute(work));
+    }
+
+    /** Retries {@code attempt}, which must open and commit its own transaction each time it is called. */
+    public <T> T run(String operation, Supplier<T> attempt) {
+        for (int tries = 1; ; tries++) {
+            try {
+                return attempt.get();
+            } catch (ConcurrencyFailureException e) {
+                if (tries >= maxAttempts) {
+                    meterRegistry.counter("money.retry.exhausted", "operation", operation).increment();
+                    log.warn("{} still conflicting after {} attempts, giving up", operation, tries);
+                    throw new ConcurrentUpdateException("The booking was changed by another request, please try again.", e);
+                }
+                meterRegistry.counter("money.retry.retries", "operation", operation).increment();
+                log.debug("{} attempt {} lost a concurrent update, retrying", operation, tries, e);
+                backOff(tries, e);
+            }
+        }
+    }
+
+    private void backOff(int tries, RuntimeException cause) {
+        long window = Math.min(maxBackoffMs, initialBackoffMs << Math.min(tries - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(window / 2, window + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
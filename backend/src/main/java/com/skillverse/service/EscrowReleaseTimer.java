@@ -0,0 +1,163 @@
+package com.skillverse.service;
+
+import com.skillverse.event.BookingStatusChangedEvent;
+import com.skillverse.model.enums.BookingStatus;
+import com.skillverse.repository.BookingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires each confirmed booking's escrow release at {@code bookingTime} plus
+ * the hold period, instead of waiting for the next hourly scan.
+ *
+ * <p>Due times live in a {@link DelayQueue} that is rebuilt from the
+ * CONFIRMED bookings at startup and kept current by
+ * {@link BookingStatusChangedEvent}s: confirming schedules a release,
+ * completing or disputing cancels it. Cancelled entries are dropped from the
+ * index only and skipped when they come up, so cancelling is O(1). A release
+ * that fires re-checks the booking under a row lock, so a stale entry, or two
+ * nodes firing the same booking, releases it at most once. The hourly
+ * {@code BookingEscrowScheduler} run stays as a backstop for anything
+ * confirmed while this node was down.
+ */
+@Service
+public class EscrowReleaseTimer {
+
+    private static final Logger log = LoggerFactory.getLogger(EscrowReleaseTimer.class);
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    // Fire just after the hold period ends, so the release query's strict "older than" check passes
+    private static final long GRACE_MILLIS = 1000;
+
+    private final BookingRepository bookings;
+    private final EscrowService escrowService;
+    private final long holdMillis;
+
+    private final DelayQueue<Release> queue = new DelayQueue<>();
+    private final Map<Long, Release> scheduled = new ConcurrentHashMap<>();
+    private final Counter fired;
+    private final DistributionSummary lateness;
+    private volatile Thread worker;
+
+    public EscrowReleaseTimer(BookingRepository bookings,
+                              EscrowService escrowService,
+                              ClusterService cluster,
+                              MeterRegistry meterRegistry,
+                              @Value("${escrow.release.after-hours:48}") int holdHours) {
+        this.bookings = bookings;
+        this.escrowService = escrowService;
+        this.holdMillis = TimeUnit.HOURS.toMillis(holdHours);
+        this.fired = Counter.builder("escrow.timer.released").tag("node", cluster.nodeId()).description("Bookings released by the escrow timer").register(meterRegistry);
+        this.lateness = DistributionSummary.builder("escrow.timer.lateness").baseUnit("milliseconds")
+                .description("How long after its due time a booking's release ran").register(meterRegistry);
+        meterRegistry.gaugeMapSize("escrow.timer.scheduled", List.of(), scheduled);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long afterId = 0L;
+        List<BookingRepository.BookingTime> page;
+        do {
+            page = bookings.findTimesByStatus(BookingStatus.CONFIRMED, afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            for (BookingRepository.BookingTime booking : page) {
+                schedule(booking.getId(), booking.getBookingTime());
+                afterId = booking.getId();
+            }
+        } while (page.size() == REBUILD_PAGE_SIZE);
+        log.info("Escrow release timer started with {} confirmed bookings", scheduled.size());
+
+        worker = new Thread(this::run, "escrow-timer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread running = worker;
+        if (running != null) running.interrupt();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        if (event.status() == BookingStatus.CONFIRMED) {
+            schedule(event.bookingId(), event.bookingTime());
+        } else {
+            scheduled.remove(event.bookingId());
+        }
+    }
+
+    private void schedule(Long bookingId, LocalDateTime bookingTime) {
+        long dueAt = bookingTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + holdMillis + GRACE_MILLIS;
+        scheduled.compute(bookingId, (id, previous) -> {
+            if (previous != null && previous.dueAt == dueAt) return previous; // already queued for that time
+            Release release = new Release(id, dueAt);
+            queue.add(release);
+            return release;
+        });
+    }
+
+    private void run() {
+        List<Release> due = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                due.add(queue.take());
+                queue.drainTo(due); // everything else already due goes in the same pass
+            } catch (InterruptedException e) {
+                return;
+            }
+            for (Release release : due) {
+                // Skip entries that were cancelled or superseded since they were queued
+                if (!scheduled.remove(release.bookingId, release)) continue;
+                try {
+                    if (escrowService.releaseIfDue(release.bookingId)) {
+                        fired.increment();
+                        lateness.record(Math.max(0, Instant.now().toEpochMilli() - release.dueAt));
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Escrow timer release failed for booking {}; the hourly run will retry it", release.bookingId, e);
+                }
+            }
+            due.clear();
+        }
+    }
+
+    private static final class Release implements Delayed {
+        final Long bookingId;
+        final long dueAt;
+
+        Release(Long bookingId, long dueAt) {
+            this.bookingId = bookingId;
+            this.dueAt = dueAt;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAt, ((Release) other).dueAt);
+        }
+    }
+}
@@ -1,69 +1,318 @@
 // backend/src/main/java/com/skillverse/service/EscrowService.java
 package com.skillverse.service;
 
+import com.skillverse.dto.EscrowDtos.EscrowReconciliation;
 import com.skillverse.model.entity.*;
 import com.skillverse.model.enums.BookingStatus;
+import com.skillverse.model.enums.EscrowHoldStatus;
 import com.skillverse.repository.BookingRepository;
-import com.skillverse.repository.TransactionRepository;
-import jakarta.transaction.Transactional;
+import com.skillverse.repository.EscrowHoldRepository;
+import com.skillverse.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Holds tokens in escrow for confirmed bookings, pays them out, and drains
+ * the backlog of confirmed bookings whose hold period has passed.
+ *
+ * <p>Each booking's escrow is its own {@link EscrowHold} row and every token
+ * movement is an insert-only ledger posting, so concurrent accepts and
+ * releases touch disjoint rows instead of all updating the escrow account.
+ *
+ * <p>The auto-release runs as a chunked pipeline: each worker claims the next
+ * {@code escrow.release.chunk-size} due bookings with
+ * {@code FOR UPDATE SKIP LOCKED} and releases them in one short transaction,
+ * so several workers (or nodes) drain the backlog in parallel without waiting
+ * on each other. With several nodes, each can also be limited to its own
+ * {@link ClusterService.Shard} of the bookings, so the nodes split the work
+ * rather than all scanning the same rows. If a chunk fails, its bookings are retried one per
+ * transaction so that a single bad row cannot block the rest; those
+ * single-booking transactions are retried with backoff when they lose a race
+ * with a user completing or disputing the same booking.
+ */
 @Service
 public class EscrowService {
 
+    private static final Logger log = LoggerFactory.getLogger(EscrowService.class);
+    public static final String ESCROW_EMAIL = "escrow@system.internal";
+
     private final BookingRepository bookings;
-    private final TransactionRepository transactions;
+    private final EscrowHoldRepository holds;
+    private final LedgerService ledger;
+    private final UserRepository users;
     private final NotificationService notifications;
+    private final TransactionTemplate chunkTransaction;
+    private final TaskExecutor escrowExecutor;
+    private final ConcurrencyRetry concurrencyRetry;
+
+    private final int holdHours;
+    private final int chunkSize;
+    private final int workers;
+
+    private final Counter released;
+    private final Counter failed;
+    private final Timer chunkTimer;
+    private final AtomicLong backlog = new AtomicLong();
+    private volatile Long escrowUserId;
 
     public EscrowService(BookingRepository bookings,
-                         TransactionRepository transactions,
-                         NotificationService notifications) {
+                         EscrowHoldRepository holds,
+                         LedgerService ledger,
+                         UserRepository users,
+                         NotificationService notifications,
+                         PlatformTransactionManager transactionManager,
+                         @Qualifier("escrowExecutor") TaskExecutor escrowExecutor,
+                         ConcurrencyRetry concurrencyRetry,
+                         ClusterService cluster,
+                         MeterRegistry meterRegistry,
+                         @Value("${escrow.release.after-hours:48}") int holdHours,
+                         @Value("${escrow.release.chunk-size:100}") int chunkSize,
+                         @Value("${escrow.release.workers:4}") int workers) {
         this.bookings = bookings;
-        this.transactions = transactions;
+        this.holds = holds;
+        this.ledger = ledger;
+        this.users = users;
         this.notifications = notifications;
+        this.escrowExecutor = escrowExecutor;
+        this.concurrencyRetry = concurrencyRetry;
+        this.holdHours = holdHours;
+        this.chunkSize = chunkSize;
+        this.workers = workers;
+
+        // Each chunk commits on its own, even if the caller has a transaction open
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        // Tagged by node so per-node throughput shows when the work is sharded
+        String node = cluster.nodeId();
+        this.released = Counter.builder("escrow.release.released").tag("node", node).description("Bookings auto-released from escrow").register(meterRegistry);
+        this.failed = Counter.builder("escrow.release.failed").tag("node", node).description("Bookings whose auto-release failed and was left for the next run").register(meterRegistry);
+        this.chunkTimer = Timer.builder("escrow.release.chunk").tag("node", node).description("Time to claim and release one chunk").register(meterRegistry);
+        meterRegistry.gauge("escrow.release.backlog", backlog);
+        Gauge.builder("escrow.release.lag", this, EscrowService::releaseLagSeconds)
+                .baseUnit("seconds")
+                .description("How long the oldest CONFIRMED booking has been past its release time")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Releases every CONFIRMED booking older than the hold period.
+     *
+     * @return the number of bookings released
+     */
+    public int releaseDue() {
+        return releaseDue(ClusterService.Shard.ALL);
+    }
+
+    /**
+     * Releases the CONFIRMED bookings in {@code shard} that are older than the hold period.
+     *
+     * @return the number of bookings released
+     */
+    public int releaseDue(ClusterService.Shard shard) {
+        LocalDateTime threshold = LocalDateTime.now().minusHours(holdHours);
+        backlog.set(bookings.countDueForRelease(threshold, shard.count(), shard.index()));
+        if (backlog.get() == 0) return 0;
+
+        long escrowUserId = escrowUserId();
+        List<CompletableFuture<Integer>> running = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            running.add(CompletableFuture.supplyAsync(() -> drain(threshold, shard, escrowUserId), escrowExecutor));
+        }
+        int total = running.stream().mapToInt(CompletableFuture::join).sum();
+        log.info("Escrow auto-release of shard {}/{}: {} released, {} still due", shard.index(), shard.count(), total, backlog.get());
+        return total;
+    }
+
+    /**
+     * Releases one booking if it is still CONFIRMED and past the hold period;
+     * used by {@link EscrowReleaseTimer} when the booking's release comes due.
+     *
+     * @return whether this call released it
+     */
+    public boolean releaseIfDue(Long bookingId) {
+        LocalDateTime threshold = LocalDateTime.now().minusHours(holdHours);
+        return releaseIndividually(List.of(bookingId), threshold, escrowUserId()) == 1;
+    }
+
+    /** Moves the booking's listing price from its learner into escrow. Runs in the caller's transaction. */
+    public EscrowHold hold(Booking booking) {
+        return holdAll(List.of(booking)).get(0);
     }
 
     /**
-     * NOTE: This method is currently redundant. The active scheduler
-     * (@see BookingEscrowScheduler) calls the more complete auto-release logic
-     * in BookingService. This method is maintained to resolve compilation but
-     * should be considered for removal in a future refactor.
+     * Moves each booking's listing price from its learner into escrow, as one
+     * batch of ledger postings and hold rows. Runs in the caller's transaction.
      */
-    @Transactional
-    public int autoRelease(Duration after) {
-        Instant cutoff = Instant.now().minus(after);
-        LocalDateTime cutoffDateTime = LocalDateTime.ofInstant(cutoff, java.time.ZoneId.systemDefault());
+    public List<EscrowHold> holdAll(List<Booking> toHold) {
+        User escrow = users.getReferenceById(escrowUserId());
+        List<LedgerService.Posting> postings = new ArrayList<>(toHold.size());
+        List<EscrowHold> newHolds = new ArrayList<>(toHold.size());
+        for (Booking booking : toHold) {
+            BigDecimal amount = booking.getListing().getTokenPrice();
+            String description = "Escrow for Booking #" + booking.getId();
+            postings.add(new LedgerService.Posting(booking, List.of(
+                    LedgerService.Entry.debit(booking.getLearner(), amount, description),
+                    LedgerService.Entry.credit(escrow, amount, description))));
+            newHolds.add(new EscrowHold(booking, amount));
+        }
+        ledger.postAll(postings);
+        return holds.saveAll(newHolds);
+    }
 
-        List<Booking> eligible = bookings.findAllByStatusAndBookingTimeBefore(BookingStatus.CONFIRMED, cutoffDateTime);
+    /** Moves a booking's price from escrow to its teacher. Must run inside the caller's transaction. */
+    public void releaseFunds(Booking booking) {
+        releaseFunds(List.of(booking), escrowUserId());
+    }
+
+    /** Escrow account balance split into per-booking holds and legacy escrow, against what open bookings say it should be. */
+    public EscrowReconciliation reconcile() {
+        EscrowHoldRepository.HeldTotal held = holds.findHeldTotal();
+        BigDecimal total = ledger.balanceOf(escrowUserId());
+        BigDecimal legacy = total.subtract(held.getAmount());
+        BigDecimal expected = bookings.sumPriceByStatusIn(EnumSet.of(BookingStatus.CONFIRMED, BookingStatus.IN_DISPUTE));
+        return new EscrowReconciliation(held.getCount(), held.getAmount(), legacy, total, expected, total.subtract(expected));
+    }
+
+    // One worker: claim, release, commit, repeat until nothing due is left unclaimed
+    private int drain(LocalDateTime threshold, ClusterService.Shard shard, long escrowUserId) {
+        long afterId = 0L;
+        int count = 0;
+        while (true) {
+            final long cursor = afterId;
+            List<Long> claimed = new ArrayList<>();
+            try {
+                Integer done = chunkTimer.record(() -> chunkTransaction.execute(status -> {
+                    claimed.addAll(bookings.claimDueForRelease(threshold, cursor, chunkSize, shard.count(), shard.index()));
+                    return release(bookings.findAllById(claimed), escrowUserId);
+                }));
+                count += done;
+                released.increment(done);
+                backlog.addAndGet(-done);
+            } catch (RuntimeException e) {
+                log.warn("Escrow release chunk after booking {} failed, retrying its {} bookings one by one", cursor, claimed.size(), e);
+                count += releaseIndividually(claimed, threshold, escrowUserId);
+            }
+            if (claimed.size() < chunkSize) return count;
+            afterId = claimed.get(claimed.size() - 1);
+        }
+    }
+
+    private int releaseIndividually(List<Long> ids, LocalDateTime threshold, long escrowUserId) {
         int count = 0;
-        for (Booking b : eligible) {
-            Listing listing = b.getListing();
-            User learner = b.getLearner();
-            User teacher = listing.getTeacher();
+        for (Long id : ids) {
+            try {
+                Integer done = concurrencyRetry.run("escrow.release", () -> chunkTransaction.execute(status -> {
+                    List<Long> claimed = bookings.claimDueForRelease(threshold, id - 1, 1, 1, 0);
+                    if (claimed.isEmpty() || !claimed.get(0).equals(id)) return 0; // already handled or taken by another worker
+                    return release(bookings.findAllById(claimed), escrowUserId);
+                }));
+                count += done;
+                released.increment(done);
+                backlog.updateAndGet(due -> Math.max(0, due - done));
+            } catch (RuntimeException e) {
+                failed.increment();
+                log.error("Escrow auto-release failed for booking {}; it stays CONFIRMED for the next run", id, e);
+            }
+        }
+        return count;
+    }
 
-            b.setStatus(BookingStatus.COMPLETED);
-            bookings.save(b);
+    private int release(List<Booking> chunk, long escrowUserId) {
+        if (chunk.isEmpty()) return 0;
+        releaseFunds(chunk, escrowUserId);
+        for (Booking booking : chunk) {
+            booking.setStatus(BookingStatus.COMPLETED);
 
-            // Notify Teacher
-            notifications.create(teacher,
-                    Notification.Type.ESCROW_RELEASED, // <-- THE FIX: Added Notification.Type
+            notifications.create(
+                    booking.getLearner(),
+                    Notification.Type.ESCROW_RELEASED,
                     "Funds Auto-Released",
-                    "Funds for your session with " + learner.getName() + " were automatically released.",
-                    b);
-
-            // Notify Learner
-            notifications.create(learner,
-                    Notification.Type.ESCROW_RELEASED, // <-- THE FIX: Added Notification.Type
+                    "Funds for '" + booking.getListing().getTitle() + "' were automatically released to the teacher after " + holdHours + " hours.",
+                    booking
+            );
+            notifications.create(
+                    booking.getListing().getTeacher(),
+                    Notification.Type.ESCROW_RELEASED,
                     "Funds Auto-Released",
-                    "Funds for your session with " + teacher.getName() + " were automatically released after 48 hours.",
-                    b);
-            count++;
+                    booking.getListing().getTokenPrice() + " tokens for your session with " + booking.getLearner().getName() + " were automatically released.",
+                    booking
+            );
         }
-        return count;
+        bookings.saveAll(chunk);
+        return chunk.size();
+    }
+
+    // Each release is one ledger posting (escrow -> teacher); no account row is
+    // updated. Held bookings also flip their hold row; legacy bookings, confirmed
+    // before holds existed, are paid from what the escrow account carried over.
+    private void releaseFunds(List<Booking> chunk, long escrowUserId) {
+        Map<Long, EscrowHold> holdsByBooking = holds.findByBooking_IdIn(chunk.stream().map(Booking::getId).toList()).stream()
+                .collect(Collectors.toMap(h -> h.getBooking().getId(), Function.identity()));
+        List<Long> heldIds = new ArrayList<>();
+        User escrow = users.getReferenceById(escrowUserId);
+
+        for (Booking booking : chunk) {
+            EscrowHold hold = holdsByBooking.get(booking.getId());
+            BigDecimal amount;
+            if (hold == null) {
+                amount = booking.getListing().getTokenPrice();
+            } else if (hold.getStatus() == EscrowHoldStatus.HELD) {
+                amount = hold.getAmount();
+                heldIds.add(hold.getId());
+            } else {
+                // The booking was read as CONFIRMED before a concurrent release committed; a retry sees it settled
+                throw new OptimisticLockingFailureException("Escrow for booking " + booking.getId() + " was already released");
+            }
+            User teacher = booking.getListing().getTeacher();
+            ledger.post(booking, List.of(
+                    LedgerService.Entry.debit(escrow, amount, "Release funds for Booking #" + booking.getId()),
+                    LedgerService.Entry.credit(teacher, amount, "Payment for Booking #" + booking.getId())));
+        }
+
+        if (!heldIds.isEmpty() && holds.releaseHeld(heldIds, Instant.now()) != heldIds.size()) {
+            // Lost to a concurrent release; a retry re-reads the booking and sees it is no longer CONFIRMED
+            throw new OptimisticLockingFailureException("Escrow holds were released concurrently for bookings " + heldIds);
+        }
+    }
+
+    private double releaseLagSeconds() {
+        LocalDateTime oldest = bookings.findOldestBookingTime(BookingStatus.CONFIRMED);
+        if (oldest == null) return 0;
+        return Math.max(0, Duration.between(oldest.plusHours(holdHours), LocalDateTime.now()).toSeconds());
+    }
+
+    private long escrowUserId() {
+        Long id = escrowUserId;
+        if (id == null) {
+            id = users.findByEmail(ESCROW_EMAIL).orElseThrow(() -> new IllegalStateException("Escrow user not found!")).getId();
+            escrowUserId = id;
+        }
+        return id;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,157 @@
+package com.skillverse.service;
+
+import com.skillverse.model.entity.IdempotencyRecord;
+import com.skillverse.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+
+/**
+ * Store behind {@code Idempotency-Key} requests (see {@code IdempotencyFilter}).
+ *
+ * <p>The first request with a key claims it by inserting its row; a repeat
+ * finds the row and is answered with the stored response, or told the
+ * original is still running. Only successful responses are kept: a failed
+ * request rolled back, so its key is released and a retry runs it again.
+ * Rows expire after {@code idempotency.ttl-hours}, and a claim left by a
+ * request that never finished can be taken over after
+ * {@code idempotency.lock-timeout-seconds}.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+    private static final String PURGE_JOB = "idempotency-purge";
+
+    public enum Outcome {
+        /** The caller owns the key and must run the request, then complete or release it. */
+        STARTED,
+        /** The request already succeeded; answer with {@link Claim#response()}. */
+        REPLAY,
+        /** Another request with this key is still running. */
+        IN_PROGRESS,
+        /** The key was used for a different request. */
+        MISMATCH
+    }
+
+    public record StoredResponse(int status, String contentType, byte[] body) {}
+
+    public record Claim(Outcome outcome, String keyHash, Instant lockedAt, StoredResponse response) {}
+
+    private final IdempotencyRecordRepository records;
+    private final ClusterService clusterService;
+    private final TransactionTemplate transaction;
+    private final Duration ttl;
+    private final Duration lockTimeout;
+    private final Duration purgeLeaseTtl;
+
+    public IdempotencyService(IdempotencyRecordRepository records,
+                              ClusterService clusterService,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${idempotency.lock-timeout-seconds:60}") long lockTimeoutSeconds,
+                              @Value("${scheduler.lease.ttl-seconds:600}") long purgeLeaseTtlSeconds) {
+        this.records = records;
+        this.clusterService = clusterService;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.lockTimeout = Duration.ofSeconds(lockTimeoutSeconds);
+        this.purgeLeaseTtl = Duration.ofSeconds(purgeLeaseTtlSeconds);
+
+        // The key is claimed and completed outside the request's own transaction
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** Hex SHA-256 of the parts, separated so that ("ab", "c") and ("a", "bc") differ. */
+    public static String hash(String... parts) {
+        MessageDigest digest = sha256();
+        for (String part : parts) {
+            digest.update(part.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public static String hash(String query, byte[] body) {
+        MessageDigest digest = sha256();
+        digest.update(query.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(body);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public Claim claim(String keyHash, String requestHash) {
+        // Millisecond precision so the claim time compares equal after a round trip through the database
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        return transaction.execute(status -> {
+            if (records.insertIfAbsent(keyHash, requestHash, now, now.plus(ttl)) == 1) {
+                return new Claim(Outcome.STARTED, keyHash, now, null);
+            }
+            IdempotencyRecord existing = records.findById(keyHash).orElse(null);
+            if (existing == null) {
+                // Purged between the insert and the read; the client's retry will claim it
+                return new Claim(Outcome.IN_PROGRESS, keyHash, null, null);
+            }
+            boolean expired = existing.getExpiresAt().isBefore(now);
+            boolean abandoned = existing.getStatus() == null && existing.getLockedAt().plus(lockTimeout).isBefore(now);
+            if (expired || abandoned) {
+                return records.takeOver(keyHash, existing.getLockedAt(), requestHash, now, now.plus(ttl)) == 1
+                        ? new Claim(Outcome.STARTED, keyHash, now, null)
+                        : new Claim(Outcome.IN_PROGRESS, keyHash, null, null);
+            }
+            if (!existing.getRequestHash().equals(requestHash)) {
+                return new Claim(Outcome.MISMATCH, keyHash, null, null);
+            }
+            if (existing.getStatus() == null) {
+                return new Claim(Outcome.IN_PROGRESS, keyHash, null, null);
+            }
+            return new Claim(Outcome.REPLAY, keyHash, existing.getLockedAt(),
+                    new StoredResponse(existing.getStatus(), existing.getContentType(), existing.getBody()));
+        });
+    }
+
+    public void complete(Claim claim, StoredResponse response) {
+        transaction.executeWithoutResult(status -> {
+            if (records.complete(claim.keyHash(), claim.lockedAt(), response.status(), response.contentType(), response.body()) == 0) {
+                log.warn("Idempotency key {} was taken over before its request completed", claim.keyHash());
+            }
+        });
+    }
+
+    public void release(Claim claim) {
+        transaction.executeWithoutResult(status -> records.release(claim.keyHash(), claim.lockedAt()));
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:600000}", initialDelayString = "${idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        try {
+            clusterService.runExclusively(PURGE_JOB, purgeLeaseTtl, () -> {
+                Integer purged = transaction.execute(status -> records.deleteExpired(Instant.now()));
+                if (purged != null && purged > 0) log.info("Purged {} expired idempotency keys", purged);
+            });
+        } catch (Exception e) {
+            log.error("Error purging expired idempotency keys", e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.skillverse.service;
+
+import com.skillverse.model.entity.BalanceSnapshot;
+import com.skillverse.model.entity.Booking;
+import com.skillverse.model.entity.Transaction;
+import com.skillverse.model.entity.User;
+import com.skillverse.model.enums.TransactionType;
+import com.skillverse.repository.BalanceSnapshotRepository;
+import com.skillverse.repository.LedgerWatermarkRepository;
+import com.skillverse.repository.TransactionRepository;
+import com.skillverse.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Append-only double-entry ledger over {@link Transaction} rows.
+ *
+ * <p>Every movement of tokens is a posting: a group of entries sharing a
+ * posting id whose debits and credits are equal. Writes only insert entries,
+ * so they never update (or lock) user rows. A balance is the account's latest
+ * {@link BalanceSnapshot} plus the entries after it; a scheduled job rolls
+ * snapshots forward so that tail stays short.
+ *
+ * <p>Entries can commit out of id order, so the job only folds entries older
+ * than {@code ledger.snapshot.lag-seconds}: an entry below the snapshot's
+ * {@code lastTransactionId} that had not committed yet would otherwise be
+ * skipped by both the snapshot and the tail. How far the job has got is kept
+ * in the {@code ledger-snapshots} watermark, so a restart or another node
+ * picking up the job only scans entries after it.
+ */
+@Service
+public class LedgerService {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerService.class);
+    static final String SNAPSHOTS = "ledger-snapshots";
+
+    /** One side of a posting. */
+    public record Entry(User account, TransactionType type, BigDecimal amount, String description) {
+        public static Entry debit(User account, BigDecimal amount, String description) {
+            return new Entry(account, TransactionType.DEBIT, amount, description);
+        }
+
+        public static Entry credit(User account, BigDecimal amount, String description) {
+            return new Entry(account, TransactionType.CREDIT, amount, description);
+        }
+    }
+
+    /** A balanced group of entries for one booking. */
+    public record Posting(Booking booking, List<Entry> entries) {}
+
+    private final TransactionRepository transactions;
+    private final BalanceSnapshotRepository snapshots;
+    private final UserRepository users;
+    private final LedgerWatermarkRepository watermarks;
+    private final long snapshotLagSeconds;
+
+    public LedgerService(TransactionRepository transactions,
+                         BalanceSnapshotRepository snapshots,
+                         UserRepository users,
+                         LedgerWatermarkRepository watermarks,
+                         @Value("${ledger.snapshot.lag-seconds:300}") long snapshotLagSeconds) {
+        this.transactions = transactions;
+        this.snapshots = snapshots;
+        this.users = users;
+        this.watermarks = watermarks;
+        this.snapshotLagSeconds = snapshotLagSeconds;
+    }
+
+    /**
+     * Writes a balanced posting and returns its id.
+     *
+     * @throws IllegalArgumentException if debits and credits differ
+     */
+    @Transactional
+    public String post(Booking booking, List<Entry> entries) {
+        return postAll(List.of(new Posting(booking, entries))).get(0);
+    }
+
+    /**
+     * Writes several balanced postings with one batch of inserts and returns
+     * their ids, in order.
+     *
+     * @throws IllegalArgumentException if any posting's debits and credits differ
+     */
+    @Transactional
+    public List<String> postAll(List<Posting> postings) {
+        List<String> postingIds = new ArrayList<>(postings.size());
+        List<Transaction> rows = new ArrayList<>();
+        for (Posting posting : postings) {
+            BigDecimal net = BigDecimal.ZERO;
+            for (Entry entry : posting.entries()) {
+                if (entry.amount().signum() <= 0) {
+                    throw new IllegalArgumentException("Ledger amounts must be positive: " + entry.amount());
+                }
+                net = entry.type() == TransactionType.CREDIT ? net.add(entry.amount()) : net.subtract(entry.amount());
+            }
+            if (net.signum() != 0) {
+                throw new IllegalArgumentException("Unbalanced posting: credits and debits differ by " + net);
+            }
+
+            String postingId = UUID.randomUUID().toString();
+            for (Entry entry : posting.entries()) {
+                Transaction row = new Transaction(entry.account(), entry.type(), entry.amount(), posting.booking(), entry.description());
+                row.setPostingId(postingId);
+                rows.add(row);
+            }
+            postingIds.add(postingId);
+        }
+        transactions.saveAll(rows);
+        return postingIds;
+    }
+
+    /** Latest snapshot plus the ledger tail after it. */
+    @Transactional(readOnly = true)
+    public BigDecimal balanceOf(Long userId) {
+        BalanceSnapshot snapshot = snapshots.findFirstByUser_IdOrderByLastTransactionIdDesc(userId).orElse(null);
+        if (snapshot != null) {
+            return snapshot.getBalance().add(transactions.sumSince(userId, snapshot.getLastTransactionId()));
+        }
+        // Not opened yet: the opening balance is still on the user row
+        BigDecimal opening = users.findById(userId).map(User::getTokenBalance).orElse(BigDecimal.ZERO);
+        return opening.add(transactions.sumSince(userId, 0L));
+    }
+
+    /** {@link #balanceOf} for several accounts in one query. */
+    @Transactional(readOnly = true)
+    public Map<Long, BigDecimal> balancesOf(Collection<Long> userIds) {
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        for (BalanceSnapshotRepository.AccountBalance account : snapshots.findBalances(userIds)) {
+            balances.put(account.getUserId(), account.getBalance());
+        }
+        return balances;
+    }
+
+    /** Records a new account's opening balance. */
+    @Transactional
+    public void openAccount(User user) {
+        snapshots.save(new BalanceSnapshot(user, user.getTokenBalance(), 0L));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void openMissingAccounts() {
+        int opened = snapshots.insertMissingOpeningSnapshots();
+        if (opened > 0) log.info("Opened ledger accounts for {} users", opened);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void createWatermark() {
+        watermarks.createIfAbsent(SNAPSHOTS);
+    }
+
+    /** Snapshots every account with entries since the last roll; run by {@code LedgerSnapshotScheduler}. */
+    @Transactional
+    public void rollSnapshotsForward() {
+        long after = watermarks.findLastTransactionId(SNAPSHOTS);
+        long through = transactions.findMaxPostedIdBefore(LocalDateTime.now().minusSeconds(snapshotLagSeconds));
+        if (through <= after) return;
+        int written = snapshots.rollForward(after, through);
+        if (watermarks.advance(SNAPSHOTS, after, through) == 0) {
+            // Another roll over the same range got there first; roll this one back
+            throw new OptimisticLockingFailureException("Ledger snapshots were rolled forward concurrently past " + after);
+        }
+        log.info("Ledger snapshots rolled forward through entry {} for {} accounts", through, written);
+    }
+}
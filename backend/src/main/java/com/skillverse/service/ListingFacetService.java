@@ -0,0 +1,67 @@
+package com.skillverse.service;
+
+import com.skillverse.event.ListingSavedEvent;
+import com.skillverse.model.entity.Listing;
+import com.skillverse.repository.ListingRepository;
+import com.skillverse.search.ListingFacetIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Keeps the {@link ListingFacetIndex} in step with the listing table: a full
+ * build at startup, then one update per {@link ListingSavedEvent}.
+ */
+@Service
+public class ListingFacetService {
+
+    private static final Logger log = LoggerFactory.getLogger(ListingFacetService.class);
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final ListingRepository listingRepository;
+    private final ListingFacetIndex index = new ListingFacetIndex();
+    private volatile boolean ready = false;
+
+    public ListingFacetService(ListingRepository listingRepository) {
+        this.listingRepository = listingRepository;
+    }
+
+    /** False until the startup rebuild has finished; until then results and counts would be partial. */
+    public boolean isReady() { return ready; }
+
+    public ListingFacetIndex.Result query(ListingFacetIndex.Query query, Long beforeId, int pageSize) {
+        return index.query(query, beforeId, pageSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long afterId = 0L;
+        int count = 0;
+        List<Listing> listings;
+        do {
+            listings = listingRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            for (Listing listing : listings) {
+                put(listing);
+                afterId = listing.getId();
+                count++;
+            }
+        } while (listings.size() == REBUILD_PAGE_SIZE);
+        ready = true;
+        log.info("Listing facet index built for {} listings", count);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingSaved(ListingSavedEvent event) {
+        put(event.listing());
+    }
+
+    private void put(Listing listing) {
+        index.put(listing.getId(), listing.getFormat(), listing.getTokenPrice(), listing.getDurationMinutes());
+    }
+}
@@ -2,19 +2,30 @@ package com.skillverse.service;
 
 
 import com.skillverse.dto.ListingDtos.*;
+import com.skillverse.event.ListingSavedEvent;
 import com.skillverse.exception.ResourceNotFoundException;
 import com.skillverse.model.entity.Listing;
 import com.skillverse.model.entity.User;
 import com.skillverse.repository.ListingRepository;
 import com.skillverse.repository.UserRepository;
+import com.skillverse.search.ListingFacetIndex;
+import com.skillverse.search.PriceStatistics;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 //import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import com.skillverse.dto.ListingDtos.PriceSuggestionDto;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.DoubleSummaryStatistics;
 
 @Service
@@ -24,9 +35,55 @@ public class ListingService {
     private ListingRepository listingRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private ListingFacetService listingFacetService;
+    @Autowired
+    private SearchResultCache searchResultCache;
+    @Autowired
+    private PriceStatisticsService priceStatisticsService;
 
+    public static final int MAX_BROWSE_PAGE_SIZE = 100;
+
+    @Value("${listings.page.max-size:100}")
+    private int maxPageSize;
+    @Value("${listings.unpaged.max:500}")
+    private int maxUnpaged;
+
+    // Unpaged catalog kept for existing clients; capped to the newest listings.unpaged.max entries
     public List<ListingDto> getAllListings() {
-        return listingRepository.findAll().stream().map(this::mapToListingDto).collect(Collectors.toList());
+        return listingRepository.findCatalogPage(PageRequest.of(0, maxUnpaged));
+    }
+
+    /** One page of the catalog, newest first; pass the previous page's nextCursor to continue. */
+    public ListingPageResponse getListingPage(Long cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        // Fetch one extra row to know whether another page exists
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<ListingDto> rows = cursor == null
+                ? listingRepository.findCatalogPage(page)
+                : listingRepository.findCatalogPageBefore(cursor, page);
+        if (rows.size() <= pageSize) {
+            return new ListingPageResponse(rows, null);
+        }
+        List<ListingDto> listings = rows.subList(0, pageSize);
+        return new ListingPageResponse(listings, listings.get(pageSize - 1).id());
+    }
+
+    // Validator for the unpaged catalog: any new or updated listing, or teacher rename, changes it
+    public String getCatalogEtag() {
+        ListingRepository.CatalogVersion catalog = listingRepository.findCatalogVersion();
+        Instant teachersUpdatedAt = userRepository.findLatestProfileUpdate();
+        return "listings-" + catalog.getCount() + "-" + catalog.getMaxId() + "-" + catalog.getVersionSum()
+                + "-" + (teachersUpdatedAt == null ? 0 : teachersUpdatedAt.toEpochMilli()) + "-" + maxUnpaged;
+    }
+
+    public String getListingEtag(Long id) {
+        ListingRepository.ListingVersion version = listingRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Listing", "id", id));
+        Instant teacherUpdatedAt = version.getTeacherUpdatedAt();
+        return "listing-" + id + "-" + version.getVersion() + "-" + (teacherUpdatedAt == null ? 0 : teacherUpdatedAt.toEpochMilli());
     }
 
     public ListingDto getListingById(Long id) {
@@ -34,6 +91,33 @@ public class ListingService {
         return mapToListingDto(listing);
     }
 
+    public boolean isBrowseReady() {
+        return listingFacetService.isReady();
+    }
+
+    public BrowseListingsResponse browse(ListingFacetIndex.Query query, Long cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_BROWSE_PAGE_SIZE));
+        ListingFacetIndex.Result result = listingFacetService.query(query, cursor, pageSize);
+
+        Map<Long, Listing> byId = listingRepository.findAllWithTeacherByIdIn(result.ids()).stream()
+                .collect(Collectors.toMap(Listing::getId, Function.identity()));
+        List<ListingDto> listings = result.ids().stream().map(byId::get).filter(Objects::nonNull)
+                .map(this::mapToListingDto).collect(Collectors.toList());
+
+        return new BrowseListingsResponse(
+                listings,
+                result.total(),
+                result.nextCursor(),
+                toFacetCounts(result.formatCounts()),
+                toFacetCounts(result.priceCounts()),
+                toFacetCounts(result.durationCounts())
+        );
+    }
+
+    private static List<FacetCountDto> toFacetCounts(Map<String, Integer> counts) {
+        return counts.entrySet().stream().map(e -> new FacetCountDto(e.getKey(), e.getValue())).collect(Collectors.toList());
+    }
+
     private ListingDto mapToListingDto(Listing listing) {
         return new ListingDto(
                 listing.getId(),
@@ -45,19 +129,40 @@ public class ListingService {
         );
     }
     public PriceSuggestionDto getPriceSuggestion(String skill) {
-        List<Listing> listings = listingRepository.findByTitleContainingIgnoreCase(skill);
-        DoubleSummaryStatistics stats = listings.stream()
-                .mapToDouble(l -> l.getTokenPrice().doubleValue())
+        if (priceStatisticsService.isReady()) {
+            Optional<PriceStatistics.Summary> summary = priceStatisticsService.lookup(skill);
+            if (summary.isPresent()) {
+                PriceStatistics.Summary s = summary.get();
+                return new PriceSuggestionDto(s.average(), s.min(), s.max(), s.count(), s.median(), s.p90());
+            }
+        }
+        // Partial words, longer phrases, and the window before the statistics are built
+        return searchResultCache.priceSuggestion(skill, this::computePriceSuggestion);
+    }
+
+    private PriceSuggestionDto computePriceSuggestion(String skill) {
+        List<BigDecimal> prices = listingRepository.findByTitleContainingIgnoreCase(skill).stream()
+                .map(Listing::getTokenPrice)
+                .sorted()
+                .collect(Collectors.toList());
+        DoubleSummaryStatistics stats = prices.stream()
+                .mapToDouble(BigDecimal::doubleValue)
                 .summaryStatistics();
 
         return new PriceSuggestionDto(
                 stats.getCount() > 0 ? stats.getAverage() : 0.0,
                 stats.getCount() > 0 ? BigDecimal.valueOf(stats.getMin()) : BigDecimal.ZERO,
                 stats.getCount() > 0 ? BigDecimal.valueOf(stats.getMax()) : BigDecimal.ZERO,
-                stats.getCount()
+                stats.getCount(),
+                percentile(prices, 0.5),
+                percentile(prices, 0.9)
         );
     }
 
+    private static BigDecimal percentile(List<BigDecimal> sorted, double q) {
+        return sorted.isEmpty() ? BigDecimal.ZERO : sorted.get((int) Math.floor(q * (sorted.size() - 1)));
+    }
+
     @Transactional
     public Listing createListing(CreateListingRequest request, String userEmail) {
         User teacher = userRepository.findByEmail(userEmail)
@@ -71,7 +176,9 @@ public class ListingService {
         listing.setDurationMinutes(request.durationMinutes());
         listing.setTeacher(teacher);
 
-        return listingRepository.save(listing);
+        Listing saved = listingRepository.save(listing);
+        eventPublisher.publishEvent(new ListingSavedEvent(saved));
+        return saved;
     }
 
 }
@@ -1,20 +1,38 @@
 // backend/src/main/java/com/skillverse/service/MessageService.java
 package com.skillverse.service;
 
+import com.skillverse.dto.MessageDtos.ConversationPage;
+import com.skillverse.dto.MessageDtos.ConversationSummaryResponse;
+import com.skillverse.dto.MessageDtos.MessagePage;
 import com.skillverse.dto.MessageDtos.MessageResponse;
+import com.skillverse.dto.MessageDtos.ReadReceipt;
 import com.skillverse.dto.MessageDtos.SendRequest;
 import com.skillverse.model.entity.Booking;
+import com.skillverse.model.entity.ConversationSummary;
 import com.skillverse.model.entity.Message;
 import com.skillverse.model.entity.Notification;
 import com.skillverse.model.entity.User;
 import com.skillverse.repository.BookingRepository;
+import com.skillverse.repository.ConversationSummaryRepository;
+import com.skillverse.repository.LedgerWatermarkRepository;
 import com.skillverse.repository.MessageRepository;
 import com.skillverse.repository.UserRepository;
 import jakarta.transaction.Transactional;
-import org.springframework.messaging.simp.SimpMessagingTemplate; // Import the template
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -23,22 +41,50 @@ import java.util.stream.Collectors;
 @Service
 public class MessageService {
 
+    private static final Logger log = LoggerFactory.getLogger(MessageService.class);
+    public static final String READ_RECEIPTS_DESTINATION = "/topic/message-receipts";
+    static final String SUMMARY_BACKFILL = "conversation-summary-backfill";
+    private static final int SNIPPET_LENGTH = 100;
+
     private final MessageRepository messageRepository;
+    private final ConversationSummaryRepository summaryRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final NotificationService notificationService;
-    private final SimpMessagingTemplate messagingTemplate; // <-- ADDED: For sending WebSocket messages
+    private final OutboxService outboxService;
+    private final LedgerWatermarkRepository watermarks;
+    private final ClusterService clusterService;
+    private final ConcurrencyRetry concurrencyRetry;
+    private final TransactionTemplate backfillTransaction;
+
+    @Value("${messages.page.max-size:200}")
+    private int maxPageSize;
+    @Value("${messages.conversations.max-size:100}")
+    private int maxConversationPageSize;
+    @Value("${scheduler.lease.ttl-seconds:600}")
+    private long leaseTtlSeconds;
 
     public MessageService(MessageRepository messageRepository,
+                          ConversationSummaryRepository summaryRepository,
                           UserRepository userRepository,
                           BookingRepository bookingRepository,
                           NotificationService notificationService,
-                          SimpMessagingTemplate messagingTemplate) { // <-- ADDED
+                          OutboxService outboxService,
+                          LedgerWatermarkRepository watermarks,
+                          ClusterService clusterService,
+                          ConcurrencyRetry concurrencyRetry,
+                          PlatformTransactionManager transactionManager) {
         this.messageRepository = messageRepository;
+        this.summaryRepository = summaryRepository;
         this.userRepository = userRepository;
         this.bookingRepository = bookingRepository;
         this.notificationService = notificationService;
-        this.messagingTemplate = messagingTemplate; // <-- ADDED
+        this.outboxService = outboxService;
+        this.watermarks = watermarks;
+        this.clusterService = clusterService;
+        this.concurrencyRetry = concurrencyRetry;
+        this.backfillTransaction = new TransactionTemplate(transactionManager);
+        this.backfillTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
     }
 
     @Transactional
@@ -58,18 +104,21 @@ public class MessageService {
         m.setContent(content);
         Message savedMessage = messageRepository.save(m);
 
+        // Both sides' inbox rows; only the recipient gains an unread message
+        String snippet = snippet(content);
+        summaryRepository.recordMessage(senderId, recipient.getId(), savedMessage.getId(), senderId, snippet, savedMessage.getCreatedAt(), 0);
+        summaryRepository.recordMessage(recipient.getId(), senderId, savedMessage.getId(), senderId, snippet, savedMessage.getCreatedAt(), 1);
+
         // This creates the bell notification
-        String snippet = content.length() > 100 ? content.substring(0, 100) + "..." : content;
         notificationService.create(recipient, Notification.Type.MESSAGE, "New message from " + sender.getName(), snippet, booking);
 
-        // --- THE REAL-TIME FIX (BACKEND) ---
-        // This pushes the full message object to the recipient's private WebSocket channel
-        messagingTemplate.convertAndSendToUser(
+        // Pushes the full message object to the recipient's private WebSocket channel, via the
+        // outbox so that it only goes out once the message is committed
+        outboxService.enqueuePush(
                 recipient.getEmail(),      // The user's principal name (their email)
                 "/topic/messages",         // The private destination
                 toDto(savedMessage)        // The message payload
         );
-        // --- END OF FIX ---
 
         return savedMessage;
     }
@@ -77,18 +126,93 @@ public class MessageService {
     // ... other methods remain unchanged ...
 
     public List<Message> conversation(Long userA, Long userB) {
-        String key = userA < userB ? (userA + ":" + userB) : (userB + ":" + userA);
-        return messageRepository.findByConversationKeyOrderByCreatedAtAsc(key);
+        return messageRepository.findByConversationKeyOrderByCreatedAtAsc(conversationKey(userA, userB));
+    }
+
+    /** The newest {@code limit} messages before {@code beforeId} (or the newest overall), returned oldest first. */
+    public MessagePage conversationPage(Long userA, Long userB, Long beforeId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        // Fetch one extra row to know whether older messages exist
+        List<MessageResponse> rows = messageRepository.findConversationPage(
+                conversationKey(userA, userB), beforeId == null ? Long.MAX_VALUE : beforeId, PageRequest.of(0, pageSize + 1));
+        boolean more = rows.size() > pageSize;
+        List<MessageResponse> messages = new ArrayList<>(more ? rows.subList(0, pageSize) : rows);
+        Collections.reverse(messages);
+        return new MessagePage(messages, more ? messages.get(0).id() : null);
+    }
+
+    private static String conversationKey(Long userA, Long userB) {
+        return userA < userB ? (userA + ":" + userB) : (userB + ":" + userA);
+    }
+
+    /** One page of the user's conversations, most recent first; pass the previous page's nextCursor to continue. */
+    public ConversationPage conversations(Long userId, Long cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxConversationPageSize));
+        // Fetch one extra row to know whether another page exists
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<ConversationSummary> rows = cursor == null
+                ? summaryRepository.findByOwnerIdOrderByLastMessageIdDesc(userId, page)
+                : summaryRepository.findByOwnerIdAndLastMessageIdLessThanOrderByLastMessageIdDesc(userId, cursor, page);
+        boolean more = rows.size() > pageSize;
+        List<ConversationSummaryResponse> conversations = (more ? rows.subList(0, pageSize) : rows).stream()
+                .map(MessageService::toDto).collect(Collectors.toList());
+        return new ConversationPage(conversations, more ? conversations.get(pageSize - 1).id() : null);
     }
-    public List<Message> lastPerConversation(Long userId) { return messageRepository.findLastMessagesPerConversation(userId); }
+
     public long unreadCount(Long userId) { return messageRepository.countByRecipient_IdAndReadAtIsNull(userId); }
+
     @Transactional
     public void markRead(Long messageId, Long readerId) {
         Message m = messageRepository.findById(messageId).orElseThrow();
-        if (Objects.equals(m.getRecipient().getId(), readerId) && m.getReadAt() == null) {
-            m.setReadAt(LocalDateTime.now());
+        // Conditional so that two concurrent reads of the same message decrement the counter once
+        if (Objects.equals(m.getRecipient().getId(), readerId)
+                && messageRepository.markRead(messageId, readerId, LocalDateTime.now()) == 1) {
+            summaryRepository.decrementUnread(readerId, m.getSender().getId(), 1);
         }
     }
+
+    /**
+     * Marks everything the reader received from {@code otherUserId} up to {@code upToId} read in one
+     * statement, and tells the other side with a single read receipt. Returns how many changed.
+     */
+    @Transactional
+    public int markConversationRead(Long readerId, Long otherUserId, Long upToId) {
+        LocalDateTime now = LocalDateTime.now();
+        int marked = messageRepository.markConversationRead(conversationKey(readerId, otherUserId), readerId, upToId, now);
+        if (marked > 0) {
+            summaryRepository.decrementUnread(readerId, otherUserId, marked);
+            User other = userRepository.findById(otherUserId).orElseThrow();
+            outboxService.enqueuePush(other.getEmail(), READ_RECEIPTS_DESTINATION, new ReadReceipt(readerId, upToId, marked, now));
+        }
+        return marked;
+    }
+
+    // Conversations from before the summaries existed; later messages maintain their own rows.
+    // Its watermark row commits with the backfill, so each database is backfilled once.
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillSummaries() {
+        if (watermarks.existsById(SUMMARY_BACKFILL)) return;
+        try {
+            clusterService.runExclusively(SUMMARY_BACKFILL, Duration.ofSeconds(leaseTtlSeconds), () -> {
+                Integer written = concurrencyRetry.run(SUMMARY_BACKFILL, () -> backfillTransaction.execute(status ->
+                        watermarks.createIfAbsent(SUMMARY_BACKFILL) == 0 ? null : summaryRepository.backfill(SNIPPET_LENGTH)));
+                if (written != null) log.info("Backfilled {} conversation summaries", written);
+            });
+        } catch (Exception e) {
+            log.error("Error backfilling conversation summaries", e);
+        }
+    }
+
+    private static String snippet(String content) {
+        return content.length() > SNIPPET_LENGTH ? content.substring(0, SNIPPET_LENGTH) + "..." : content;
+    }
+
+    public static ConversationSummaryResponse toDto(ConversationSummary s) {
+        Long recipientId = Objects.equals(s.getLastSenderId(), s.getOwnerId()) ? s.getOtherUserId() : s.getOwnerId();
+        return new ConversationSummaryResponse(s.getLastMessageId(), s.getLastSenderId(), recipientId, s.getOtherUserId(),
+                s.getSnippet(), s.getLastMessageAt(), s.getUnreadCount());
+    }
+
     public static MessageResponse toDto(Message m) {
         return new MessageResponse(m.getId(), m.getSender().getId(), m.getRecipient().getId(), m.getBooking() != null ? m.getBooking().getId() : null, m.getContent(), m.getCreatedAt(), m.getReadAt());
     }
@@ -1,6 +1,7 @@
 package com.skillverse.service;
 
 import com.skillverse.dto.NotificationDtos.NotificationResponse;
+import com.skillverse.dto.NotificationDtos.ReadReceipt;
 import com.skillverse.model.entity.Booking;
 import com.skillverse.model.entity.Notification;
 import com.skillverse.model.entity.User;
@@ -16,34 +17,37 @@ import java.util.stream.Collectors;
 @Service
 public class NotificationService {
 
+    public static final String READ_RECEIPTS_DESTINATION = "/topic/notifications-read";
+
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
+    private final OutboxService outboxService;
 
     public NotificationService(NotificationRepository notificationRepository,
-                               UserRepository userRepository) {
+                               UserRepository userRepository,
+                               OutboxService outboxService) {
         this.notificationRepository = notificationRepository;
         this.userRepository = userRepository;
+        this.outboxService = outboxService;
     }
 
+    // Written to the outbox in the caller's transaction; the notification row and its push
+    // are created by OutboxDispatcher after commit, and not at all if the caller rolls back
     @Transactional
-    public Notification create(User user, Notification.Type type, String title, String body, Booking booking) {
-        Notification n = new Notification();
-        n.setUser(user);
-        n.setType(type); // <-- THE FIX: Set type directly
-        n.setTitle(title);
-        n.setBody(body);
-        n.setBooking(booking);
-
+    public void create(User user, Notification.Type type, String title, String body, Booking booking) {
         // Set the 'fromUser' if it can be inferred from the booking
+        Long fromUserId = null;
         if (booking != null) {
             if (user.getId().equals(booking.getLearner().getId())) {
-                n.setFromUser(booking.getListing().getTeacher());
+                fromUserId = booking.getListing().getTeacher().getId();
             } else {
-                n.setFromUser(booking.getLearner());
+                fromUserId = booking.getLearner().getId();
             }
         }
 
-        return notificationRepository.save(n);
+        outboxService.enqueueNotification(new OutboxService.NotificationPayload(
+                user.getId(), user.getEmail(), type, title, body,
+                booking != null ? booking.getId() : null, fromUserId));
     }
 
     public List<NotificationResponse> listForUser(Long userId) {
@@ -63,6 +67,19 @@ public class NotificationService {
         if (n.getReadAt() == null) n.setReadAt(Instant.now());
     }
 
+    /** Marks every unread notification of the owner up to {@code upToId} read; returns how many changed. */
+    @Transactional
+    public int markReadUpTo(Long ownerId, Long upToId) {
+        Instant now = Instant.now();
+        int marked = notificationRepository.markReadUpTo(ownerId, upToId, now);
+        if (marked > 0) {
+            // One event so the owner's other sessions clear their badge, sent after commit by the outbox
+            User owner = userRepository.findById(ownerId).orElseThrow();
+            outboxService.enqueuePush(owner.getEmail(), READ_RECEIPTS_DESTINATION, new ReadReceipt(upToId, marked, now));
+        }
+        return marked;
+    }
+
     private NotificationResponse mapToResponse(Notification n) {
         return new NotificationResponse(
                 n.getId(),
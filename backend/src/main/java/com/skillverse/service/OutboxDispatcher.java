@@ -0,0 +1,232 @@
+package com.skillverse.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.skillverse.dto.NotificationDtos.NotificationResponse;
+import com.skillverse.event.OutboxWrittenEvent;
+import com.skillverse.model.entity.Notification;
+import com.skillverse.model.entity.OutboxEvent;
+import com.skillverse.repository.BookingRepository;
+import com.skillverse.repository.NotificationRepository;
+import com.skillverse.repository.OutboxEventRepository;
+import com.skillverse.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers outbox rows: bell notifications become {@link Notification} rows,
+ * and every delivery is pushed to the user over STOMP.
+ *
+ * <p>A drain is woken after each commit that wrote to the outbox and also
+ * runs every {@code outbox.poll-interval-ms} to pick up retries and anything
+ * left by another node. It claims up to {@code outbox.batch-size} rows with
+ * {@code FOR UPDATE SKIP LOCKED}, inserts their notifications and deletes the
+ * rows in one transaction, and only sends the pushes once that has committed.
+ * If a batch fails, its rows are delivered one per transaction, and a row that
+ * keeps failing is retried with backoff up to {@code outbox.max-attempts}
+ * times.
+ */
+@Service
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+    public static final String NOTIFICATIONS_DESTINATION = "/topic/notifications";
+
+    private final OutboxEventRepository outbox;
+    private final OutboxService outboxService;
+    private final NotificationRepository notifications;
+    private final UserRepository users;
+    private final BookingRepository bookings;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TransactionTemplate batchTransaction;
+    private final TaskExecutor outboxExecutor;
+
+    private final int batchSize;
+    private final int maxAttempts;
+
+    private final Counter dispatched;
+    private final Counter failed;
+    private final Timer batchTimer;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicBoolean wakeQueued = new AtomicBoolean();
+
+    public OutboxDispatcher(OutboxEventRepository outbox,
+                            OutboxService outboxService,
+                            NotificationRepository notifications,
+                            UserRepository users,
+                            BookingRepository bookings,
+                            SimpMessagingTemplate messagingTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Qualifier("outboxExecutor") TaskExecutor outboxExecutor,
+                            MeterRegistry meterRegistry,
+                            @Value("${outbox.batch-size:200}") int batchSize,
+                            @Value("${outbox.max-attempts:10}") int maxAttempts) {
+        this.outbox = outbox;
+        this.outboxService = outboxService;
+        this.notifications = notifications;
+        this.users = users;
+        this.bookings = bookings;
+        this.messagingTemplate = messagingTemplate;
+        this.outboxExecutor = outboxExecutor;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.dispatched = Counter.builder("outbox.dispatched").description("Outbox events delivered").register(meterRegistry);
+        this.failed = Counter.builder("outbox.failed").description("Outbox delivery attempts that failed").register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.batch").description("Time to claim and deliver one outbox batch").register(meterRegistry);
+        meterRegistry.gauge("outbox.pending", pending);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOutboxWritten(OutboxWrittenEvent event) {
+        wake();
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:5000}", initialDelayString = "${outbox.poll-interval-ms:5000}")
+    public void poll() {
+        pending.set(outbox.countByAvailableAtLessThanEqual(Instant.now()));
+        if (pending.get() > 0) wake();
+    }
+
+    /** Queues a drain unless one is already queued; many commits in a burst share one drain. */
+    public void wake() {
+        if (wakeQueued.compareAndSet(false, true)) {
+            outboxExecutor.execute(() -> {
+                wakeQueued.set(false);
+                drain();
+            });
+        }
+    }
+
+    /** Delivers everything deliverable now. */
+    public int drain() {
+        int total = 0;
+        while (true) {
+            List<Long> claimed = new ArrayList<>();
+            List<Runnable> pushes = new ArrayList<>();
+            try {
+                batchTimer.record(() -> batchTransaction.executeWithoutResult(status -> {
+                    List<OutboxEvent> batch = outbox.claimBatch(Instant.now(), batchSize);
+                    batch.forEach(event -> claimed.add(event.getId()));
+                    deliver(batch, pushes);
+                }));
+                pushes.forEach(this::push);
+                total += claimed.size();
+                dispatched.increment(claimed.size());
+            } catch (RuntimeException e) {
+                log.warn("Outbox batch of {} events failed, delivering them one by one", claimed.size(), e);
+                total += deliverIndividually(claimed);
+            }
+            if (claimed.size() < batchSize) return total;
+        }
+    }
+
+    private int deliverIndividually(List<Long> ids) {
+        int count = 0;
+        for (Long id : ids) {
+            List<Runnable> pushes = new ArrayList<>();
+            try {
+                Integer done = batchTransaction.execute(status -> {
+                    List<OutboxEvent> claimed = outbox.claimById(id);
+                    deliver(claimed, pushes);
+                    return claimed.size();
+                });
+                pushes.forEach(this::push);
+                count += done;
+                dispatched.increment(done);
+            } catch (RuntimeException e) {
+                failed.increment();
+                batchTransaction.executeWithoutResult(status -> outbox.findById(id).ifPresent(event -> retryLater(event, e)));
+            }
+        }
+        return count;
+    }
+
+    private void retryLater(OutboxEvent event, RuntimeException cause) {
+        event.setAttempts(event.getAttempts() + 1);
+        if (event.getAttempts() >= maxAttempts) {
+            log.error("Dropping outbox event {} ({}) after {} attempts: {}", event.getId(), event.getType(), event.getAttempts(), event.getPayload(), cause);
+            outbox.delete(event);
+            return;
+        }
+        Duration backoff = Duration.ofSeconds(1L << Math.min(event.getAttempts(), 10));
+        event.setAvailableAt(Instant.now().plus(backoff));
+        log.warn("Outbox event {} failed (attempt {}), retrying in {}", event.getId(), event.getAttempts(), backoff, cause);
+    }
+
+    // Writes the batch's notifications and deletes its rows; the pushes are returned to send after commit
+    private void deliver(List<OutboxEvent> batch, List<Runnable> pushes) {
+        if (batch.isEmpty()) return;
+        List<Notification> created = new ArrayList<>();
+        List<OutboxService.NotificationPayload> createdFor = new ArrayList<>();
+        for (OutboxEvent event : batch) {
+            try {
+                switch (event.getType()) {
+                    case NOTIFICATION -> {
+                        OutboxService.NotificationPayload payload = outboxService.read(event, OutboxService.NotificationPayload.class);
+                        created.add(toNotification(payload, event.getCreatedAt()));
+                        createdFor.add(payload);
+                    }
+                    case PUSH -> {
+                        OutboxService.PushPayload payload = outboxService.read(event, OutboxService.PushPayload.class);
+                        pushes.add(() -> messagingTemplate.convertAndSendToUser(payload.userEmail(), payload.destination(), payload.body()));
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Unreadable payload in outbox event " + event.getId(), e);
+            }
+        }
+        notifications.saveAll(created);
+        for (int i = 0; i < created.size(); i++) {
+            Notification n = created.get(i);
+            OutboxService.NotificationPayload payload = createdFor.get(i);
+            NotificationResponse response = new NotificationResponse(n.getId(), payload.type().name(), payload.title(), payload.body(),
+                    n.getCreatedAt(), null, payload.bookingId(), payload.fromUserId());
+            pushes.add(() -> messagingTemplate.convertAndSendToUser(payload.userEmail(), NOTIFICATIONS_DESTINATION, response));
+        }
+        outbox.deleteAllInBatch(batch);
+    }
+
+    private Notification toNotification(OutboxService.NotificationPayload payload, Instant createdAt) {
+        Notification n = new Notification();
+        n.setUser(users.getReferenceById(payload.userId()));
+        n.setType(payload.type());
+        n.setTitle(payload.title());
+        n.setBody(payload.body());
+        n.setCreatedAt(createdAt);
+        if (payload.bookingId() != null) n.setBooking(bookings.getReferenceById(payload.bookingId()));
+        if (payload.fromUserId() != null) n.setFromUser(users.getReferenceById(payload.fromUserId()));
+        return n;
+    }
+
+    // A push that fails is not retried: the data it announces is already committed and will be fetched
+    private void push(Runnable send) {
+        try {
+            send.run();
+        } catch (RuntimeException e) {
+            log.warn("STOMP push from the outbox failed", e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.skillverse.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skillverse.event.OutboxWrittenEvent;
+import com.skillverse.model.entity.Notification;
+import com.skillverse.model.entity.OutboxEvent;
+import com.skillverse.repository.OutboxEventRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes side effects to the outbox in the caller's transaction; they are
+ * delivered by {@link OutboxDispatcher} once that transaction commits.
+ */
+@Service
+public class OutboxService {
+
+    /** A bell notification for {@code userId}, also pushed to {@code userEmail}'s notification channel. */
+    public record NotificationPayload(Long userId, String userEmail, Notification.Type type, String title, String body,
+                                      Long bookingId, Long fromUserId) {}
+
+    /** A STOMP message for one user's private {@code destination}. */
+    public record PushPayload(String userEmail, String destination, JsonNode body) {}
+
+    private final OutboxEventRepository outbox;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public OutboxService(OutboxEventRepository outbox, ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher) {
+        this.outbox = outbox;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional
+    public void enqueueNotification(NotificationPayload notification) {
+        write(OutboxEvent.Type.NOTIFICATION, notification);
+    }
+
+    @Transactional
+    public void enqueuePush(String userEmail, String destination, Object body) {
+        write(OutboxEvent.Type.PUSH, new PushPayload(userEmail, destination, objectMapper.valueToTree(body)));
+    }
+
+    <T> T read(OutboxEvent event, Class<T> payloadType) throws JsonProcessingException {
+        return objectMapper.readValue(event.getPayload(), payloadType);
+    }
+
+    private void write(OutboxEvent.Type type, Object payload) {
+        try {
+            outbox.save(new OutboxEvent(type, objectMapper.writeValueAsString(payload)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize " + type + " outbox payload", e);
+        }
+        eventPublisher.publishEvent(new OutboxWrittenEvent());
+    }
+}
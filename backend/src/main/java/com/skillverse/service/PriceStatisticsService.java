@@ -0,0 +1,82 @@
+package com.skillverse.service;
+
+import com.skillverse.event.ListingSavedEvent;
+import com.skillverse.model.entity.Listing;
+import com.skillverse.repository.ListingRepository;
+import com.skillverse.search.PriceStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Keeps {@link PriceStatistics} in step with the listing table. Statistics
+ * are additive, so unlike the other indexes a listing must be counted exactly
+ * once: the startup scan records how far it has got, and listings saved while
+ * it is still running are remembered so the scan skips them.
+ */
+@Service
+public class PriceStatisticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceStatisticsService.class);
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final ListingRepository listingRepository;
+    private final PriceStatistics statistics = new PriceStatistics();
+    private final Set<Long> savedDuringRebuild = new HashSet<>();
+    private long scannedThrough;
+    private volatile boolean ready;
+
+    public PriceStatisticsService(ListingRepository listingRepository) {
+        this.listingRepository = listingRepository;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Optional<PriceStatistics.Summary> lookup(String skill) {
+        return statistics.lookup(skill);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long afterId = 0L;
+        int count = 0;
+        List<Listing> listings;
+        do {
+            listings = listingRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            synchronized (this) {
+                for (Listing listing : listings) {
+                    if (!savedDuringRebuild.contains(listing.getId())) {
+                        statistics.add(listing.getTitle(), listing.getTokenPrice());
+                        count++;
+                    }
+                    afterId = listing.getId();
+                    scannedThrough = afterId;
+                }
+            }
+        } while (listings.size() == REBUILD_PAGE_SIZE);
+        synchronized (this) {
+            savedDuringRebuild.clear();
+            ready = true;
+        }
+        log.info("Price statistics built for {} listings over {} keywords", count, statistics.keyCount());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onListingSaved(ListingSavedEvent event) {
+        Listing listing = event.listing();
+        if (listing.getId() <= scannedThrough) return;
+        if (!ready && !savedDuringRebuild.add(listing.getId())) return;
+        statistics.add(listing.getTitle(), listing.getTokenPrice());
+    }
+}
@@ -0,0 +1,118 @@
+package com.skillverse.service;
+
+import com.skillverse.event.ListingSavedEvent;
+import com.skillverse.event.UserProfileChangedEvent;
+import com.skillverse.model.entity.Listing;
+import com.skillverse.model.entity.User;
+import com.skillverse.repository.ListingRepository;
+import com.skillverse.repository.UserRepository;
+import com.skillverse.search.InvertedIndex;
+import com.skillverse.search.InvertedIndex.Field;
+import com.skillverse.search.InvertedIndex.Hit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Owns the in-memory inverted indexes behind {@code /api/search}: one over
+ * listing titles/descriptions and one over user names/skills. Built once at
+ * startup and then patched from {@link ListingSavedEvent} and
+ * {@link UserProfileChangedEvent} after the writing transaction commits.
+ * The listeners run first so that caches invalidated by the same events
+ * never reload from a stale index.
+ */
+@Service
+public class SearchIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexService.class);
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final ListingRepository listingRepository;
+    private final UserRepository userRepository;
+    private final InvertedIndex listingIndex = new InvertedIndex();
+    private final InvertedIndex userIndex = new InvertedIndex();
+    private volatile boolean ready = false;
+
+    public SearchIndexService(ListingRepository listingRepository, UserRepository userRepository) {
+        this.listingRepository = listingRepository;
+        this.userRepository = userRepository;
+    }
+
+    /** False until the startup rebuild has finished; callers fall back to the database meanwhile. */
+    public boolean isReady() { return ready; }
+
+    public List<Hit> searchListings(List<String> tokens, boolean fuzzy, int limit, Hit after) {
+        return fuzzy ? listingIndex.fuzzySearch(tokens, limit, after) : listingIndex.search(tokens, limit, after);
+    }
+
+    public List<Hit> searchUsers(List<String> tokens, boolean fuzzy, int limit, Hit after) {
+        return fuzzy ? userIndex.fuzzySearch(tokens, limit, after) : userIndex.search(tokens, limit, after);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        long afterId = 0L;
+        List<Listing> listings;
+        do {
+            listings = listingRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            for (Listing listing : listings) {
+                indexListing(listing);
+                afterId = listing.getId();
+            }
+        } while (listings.size() == REBUILD_PAGE_SIZE);
+
+        afterId = 0L;
+        List<User> users;
+        do {
+            users = userRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            for (User user : users) {
+                indexUser(user);
+                afterId = user.getId();
+            }
+        } while (users.size() == REBUILD_PAGE_SIZE);
+
+        ready = true;
+        log.info("Search index built: {} listings, {} users in {} ms",
+                listingIndex.size(), userIndex.size(), System.currentTimeMillis() - started);
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingSaved(ListingSavedEvent event) {
+        indexListing(event.listing());
+    }
+
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        indexUser(event.user());
+    }
+
+    private void indexListing(Listing listing) {
+        listingIndex.put(listing.getId(), List.of(
+                new Field(listing.getTitle(), 3),
+                new Field(listing.getDescription(), 1)));
+    }
+
+    private void indexUser(User user) {
+        if (isSystemAccount(user)) return;
+        List<Field> fields = new ArrayList<>();
+        fields.add(new Field(user.getName(), 3));
+        user.getSkillsOffered().forEach(skill -> fields.add(new Field(skill, 2)));
+        user.getSkillsWanted().forEach(skill -> fields.add(new Field(skill, 1)));
+        userIndex.put(user.getId(), fields);
+    }
+
+    static boolean isSystemAccount(User user) {
+        return user.getEmail() != null && user.getEmail().endsWith("@system.internal");
+    }
+}
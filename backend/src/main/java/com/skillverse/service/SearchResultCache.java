@@ -0,0 +1,253 @@
+package com.skillverse.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.skillverse.dto.ListingDtos.ListingDto;
+import com.skillverse.dto.ListingDtos.PriceSuggestionDto;
+import com.skillverse.dto.SearchDtos.SearchRequest;
+import com.skillverse.dto.SearchDtos.SearchResponseDto;
+import com.skillverse.dto.SearchDtos.Section;
+import com.skillverse.dto.UserDtos.PublicProfileDto;
+import com.skillverse.event.ListingSavedEvent;
+import com.skillverse.event.UserProfileChangedEvent;
+import com.skillverse.model.entity.Listing;
+import com.skillverse.model.entity.User;
+import com.skillverse.search.EditDistance;
+import com.skillverse.search.PriceStatistics;
+import com.skillverse.search.TextNormalizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache for {@code /api/search} and {@code /api/listings/price-suggestion}.
+ *
+ * <p>Keys are normalized (case, whitespace, accents), so "Python", " python "
+ * and "PYTHON" share one entry. Caffeine's W-TinyLFU admission keeps popular
+ * queries resident, and the search cache is bounded by estimated bytes, not
+ * entry count. There is no TTL. Entries are dropped when a listing or profile
+ * change could alter them: search entries are found through a token -> keys
+ * reverse index (plus a result-membership index for users and for the
+ * teachers of listed results, whose names are in the DTOs). Price entries
+ * are dropped by the new title's keyword keys, the ones {@link PriceStatistics}
+ * counts it under, and, because fallback answers match by substring, by any
+ * other cached key the title contains, found through a leading-gram index
+ * rather than a scan of the cache.
+ *
+ * <p>Hit/miss/eviction counts are published to Micrometer as {@code cache.*}
+ * meters tagged {@code cache=search.results|price.suggestions}.
+ */
+@Component
+public class SearchResultCache {
+
+    record SearchKey(String query, boolean fuzzy, Section section,
+                     String usersCursor, String listingsCursor, int usersLimit, int listingsLimit) {
+
+        static SearchKey of(SearchRequest r) {
+            return new SearchKey(TextNormalizer.normalize(r.query()), r.fuzzy(),
+                    r.section() == null ? Section.ALL : r.section(),
+                    r.usersCursor(), r.listingsCursor(),
+                    Math.max(1, Math.min(r.usersLimit(), SearchService.MAX_RESULTS)),
+                    Math.max(1, Math.min(r.listingsLimit(), SearchService.MAX_RESULTS)));
+        }
+    }
+
+    private final Cache<SearchKey, SearchResponseDto> searchResults;
+    private final Cache<String, PriceSuggestionDto> priceSuggestions;
+    private final Map<String, Set<SearchKey>> keysByToken = new ConcurrentHashMap<>();
+    private final Map<Long, Set<SearchKey>> keysByUser = new ConcurrentHashMap<>();
+    private final Set<SearchKey> fuzzyKeys = ConcurrentHashMap.newKeySet();
+    // Cached price keys by their first PRICE_GRAM characters; a title can only contain keys led by one of its own grams
+    private final Map<String, Set<String>> priceKeysByGram = new ConcurrentHashMap<>();
+    // Bumped on every invalidation; a result computed across a bump is not stored
+    private final AtomicLong epoch = new AtomicLong();
+    private final Counter invalidations;
+
+    private static final int PRICE_GRAM = 3;
+
+    public SearchResultCache(MeterRegistry meterRegistry,
+                             @Value("${search.cache.max-bytes:33554432}") long maxBytes,
+                             @Value("${search.cache.price-entries:10000}") long priceEntries) {
+        this.searchResults = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((SearchKey key, SearchResponseDto value) -> estimateBytes(key, value))
+                .removalListener((SearchKey key, SearchResponseDto value, RemovalCause cause) -> unregister(key, value))
+                .recordStats()
+                .build();
+        this.priceSuggestions = Caffeine.newBuilder()
+                .maximumSize(priceEntries)
+                .removalListener((String key, PriceSuggestionDto value, RemovalCause cause) -> unregisterPrice(key))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, searchResults, "search.results");
+        CaffeineCacheMetrics.monitor(meterRegistry, priceSuggestions, "price.suggestions");
+        this.invalidations = meterRegistry.counter("search.cache.invalidations");
+    }
+
+    public SearchResponseDto search(SearchRequest request, Supplier<SearchResponseDto> loader) {
+        SearchKey key = SearchKey.of(request);
+        SearchResponseDto cached = searchResults.getIfPresent(key);
+        if (cached != null) return cached;
+
+        long seen = epoch.get();
+        SearchResponseDto fresh = loader.get();
+        // Partial responses (missed deadlines, pre-index fallback) are not answers worth keeping
+        if (!fresh.partial() && epoch.get() == seen) {
+            register(key, fresh);
+            searchResults.put(key, fresh);
+        }
+        return fresh;
+    }
+
+    public PriceSuggestionDto priceSuggestion(String skill, Function<String, PriceSuggestionDto> loader) {
+        String key = TextNormalizer.normalize(skill);
+        PriceSuggestionDto cached = priceSuggestions.getIfPresent(key);
+        if (cached != null) return cached;
+
+        long seen = epoch.get();
+        PriceSuggestionDto fresh = loader.apply(key);
+        if (epoch.get() == seen) {
+            priceKeysByGram.computeIfAbsent(leadingGram(key), g -> ConcurrentHashMap.newKeySet()).add(key);
+            priceSuggestions.put(key, fresh);
+        }
+        return fresh;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingSaved(ListingSavedEvent event) {
+        epoch.incrementAndGet();
+        Listing listing = event.listing();
+        Set<String> tokens = new HashSet<>(TextNormalizer.tokenize(listing.getTitle()));
+        tokens.addAll(TextNormalizer.tokenize(listing.getDescription()));
+        invalidateSearches(tokens, Set.of());
+
+        invalidatePrices(listing.getTitle());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        epoch.incrementAndGet();
+        User user = event.user();
+        Set<String> tokens = new HashSet<>(TextNormalizer.tokenize(user.getName()));
+        user.getSkillsOffered().forEach(s -> tokens.addAll(TextNormalizer.tokenize(s)));
+        user.getSkillsWanted().forEach(s -> tokens.addAll(TextNormalizer.tokenize(s)));
+        // Old name/skills are gone by now, so also drop every entry the user currently appears in,
+        // as a result or as the teacher of a listed result
+        invalidateSearches(tokens, keysByUser.getOrDefault(user.getId(), Set.of()));
+    }
+
+    private void invalidateSearches(Set<String> tokens, Set<SearchKey> alsoInvalidate) {
+        Set<SearchKey> stale = new HashSet<>(alsoInvalidate);
+        for (String token : tokens) {
+            stale.addAll(keysByToken.getOrDefault(token, Set.of()));
+        }
+        for (SearchKey key : fuzzyKeys) {
+            if (fuzzyMatchesAny(key.query(), tokens)) stale.add(key);
+        }
+        if (stale.isEmpty()) return;
+        invalidations.increment(stale.size());
+        searchResults.invalidateAll(stale);
+    }
+
+    private void invalidatePrices(String rawTitle) {
+        Set<String> stale = new HashSet<>(PriceStatistics.keysOf(rawTitle));
+        String title = TextNormalizer.normalize(rawTitle);
+        stale.addAll(priceKeysByGram.getOrDefault("", Set.of()));
+        // Substring candidates: keys led by a gram (or shorter prefix) that occurs in the title
+        for (int i = 0; i < title.length(); i++) {
+            for (int length = 1; length <= PRICE_GRAM && i + length <= title.length(); length++) {
+                for (String key : priceKeysByGram.getOrDefault(title.substring(i, i + length), Set.of())) {
+                    if (title.contains(key)) stale.add(key);
+                }
+            }
+        }
+        priceSuggestions.invalidateAll(stale);
+    }
+
+    private void unregisterPrice(String key) {
+        // A replaced or re-added key is still cached and must stay findable
+        if (key == null || priceSuggestions.asMap().containsKey(key)) return;
+        priceKeysByGram.computeIfPresent(leadingGram(key), (g, keys) -> { keys.remove(key); return keys.isEmpty() ? null : keys; });
+    }
+
+    private static String leadingGram(String key) {
+        return key.substring(0, Math.min(PRICE_GRAM, key.length()));
+    }
+
+    private static boolean fuzzyMatchesAny(String query, Set<String> tokens) {
+        for (String queryToken : TextNormalizer.tokenize(query)) {
+            int maxEdits = EditDistance.allowedEdits(queryToken.length());
+            for (String token : tokens) {
+                if (EditDistance.bounded(queryToken, token, maxEdits) <= maxEdits) return true;
+            }
+        }
+        return false;
+    }
+
+    private void register(SearchKey key, SearchResponseDto value) {
+        for (String token : TextNormalizer.tokenize(key.query())) {
+            keysByToken.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        for (Long userId : userIds(value)) {
+            keysByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+        if (key.fuzzy()) fuzzyKeys.add(key);
+    }
+
+    private void unregister(SearchKey key, SearchResponseDto value) {
+        // A replaced or re-added key is still cached and must stay findable
+        if (key == null || searchResults.asMap().containsKey(key)) return;
+        for (String token : TextNormalizer.tokenize(key.query())) {
+            keysByToken.computeIfPresent(token, (t, keys) -> { keys.remove(key); return keys.isEmpty() ? null : keys; });
+        }
+        if (value != null) {
+            for (Long userId : userIds(value)) {
+                keysByUser.computeIfPresent(userId, (id, keys) -> { keys.remove(key); return keys.isEmpty() ? null : keys; });
+            }
+        }
+        fuzzyKeys.remove(key);
+    }
+
+    // Every user whose profile data the response carries: user results and listing teachers
+    private static Set<Long> userIds(SearchResponseDto value) {
+        Set<Long> ids = new HashSet<>();
+        for (PublicProfileDto user : value.users()) ids.add(user.id());
+        for (ListingDto listing : value.listings()) {
+            if (listing.teacherId() != null) ids.add(listing.teacherId());
+        }
+        return ids;
+    }
+
+    /** Rough retained size: string payloads at two bytes per char plus per-object overhead. */
+    private static int estimateBytes(SearchKey key, SearchResponseDto value) {
+        long bytes = 96L + 2L * key.query().length();
+        for (PublicProfileDto u : value.users()) {
+            bytes += 96 + 2L * (len(u.name()) + len(u.bio()) + len(u.avatarUrl()));
+            List<String> skills = new ArrayList<>(u.skillsOffered());
+            skills.addAll(u.skillsWanted());
+            for (String s : skills) bytes += 40 + 2L * len(s);
+        }
+        for (ListingDto l : value.listings()) {
+            bytes += 96 + 2L * (len(l.title()) + len(l.description()) + len(l.teacherName()));
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static int len(String s) {
+        return s == null ? 0 : s.length();
+    }
+}
@@ -1,32 +1,178 @@
 package com.skillverse.service;
 
+import com.skillverse.dto.SearchDtos.SearchRequest;
 import com.skillverse.dto.SearchDtos.SearchResponseDto;
+import com.skillverse.dto.SearchDtos.Section;
+import com.skillverse.exception.InvalidOperationException;
 import com.skillverse.model.entity.Listing;
 import com.skillverse.model.entity.User;
 import com.skillverse.repository.ListingRepository;
 import com.skillverse.repository.UserRepository;
+import com.skillverse.search.InvertedIndex.Hit;
+import com.skillverse.search.SearchCursor;
+import com.skillverse.search.TextNormalizer;
 // You'll need to import your DTOs here
 import com.skillverse.dto.ListingDtos.ListingDto;
 import com.skillverse.dto.UserDtos.PublicProfileDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 public class SearchService {
 
+    private static final Logger log = LoggerFactory.getLogger(SearchService.class);
+
+    // Hard cap on the page size of any one section
+    public static final int MAX_RESULTS = 100;
+
     @Autowired private UserRepository userRepository;
     @Autowired private ListingRepository listingRepository;
+    @Autowired private SearchIndexService searchIndex;
+    @Autowired private SearchResultCache searchResultCache;
+    @Autowired @Qualifier("searchExecutor") private Executor searchExecutor;
+
+    @Value("${search.users.deadline-ms:250}") private long usersDeadlineMs;
+    @Value("${search.listings.deadline-ms:250}") private long listingsDeadlineMs;
+
+    private record Page<T>(List<T> items, String nextCursor) {
+        static <T> Page<T> empty() { return new Page<>(List.of(), null); }
+    }
+
+    /**
+     * Runs the user and listing lookups concurrently. Each section has its own
+     * limit, cursor and deadline; a section that misses its deadline comes back
+     * empty and the response is flagged partial. Complete responses are cached.
+     */
+    public SearchResponseDto search(SearchRequest request) {
+        return searchResultCache.search(request, () -> searchUncached(request));
+    }
+
+    private SearchResponseDto searchUncached(SearchRequest request) {
+        List<String> tokens = TextNormalizer.tokenize(request.query());
+        if (tokens.isEmpty()) {
+            return new SearchResponseDto(List.of(), List.of(), null, null, false);
+        }
+        if (!searchIndex.isReady()) {
+            return searchDatabase(request);
+        }
+        Hit usersAfter = decodeCursor(request.usersCursor());
+        Hit listingsAfter = decodeCursor(request.listingsCursor());
+        int usersLimit = clamp(request.usersLimit());
+        int listingsLimit = clamp(request.listingsLimit());
 
-    public SearchResponseDto search(String query) {
-        List<User> users = userRepository.findByNameContainingIgnoreCase(query);
-        List<Listing> listings = listingRepository.findByTitleContainingIgnoreCase(query);
+        long started = System.nanoTime();
+        CompletableFuture<Page<PublicProfileDto>> users = request.includes(Section.USERS)
+                ? submit(() -> searchUsers(tokens, request.fuzzy(), usersLimit, usersAfter))
+                : CompletableFuture.completedFuture(Page.empty());
+        CompletableFuture<Page<ListingDto>> listings = request.includes(Section.LISTINGS)
+                ? submit(() -> searchListings(tokens, request.fuzzy(), listingsLimit, listingsAfter))
+                : CompletableFuture.completedFuture(Page.empty());
+
+        Page<PublicProfileDto> userPage = await(users, started, usersDeadlineMs, "users");
+        Page<ListingDto> listingPage = await(listings, started, listingsDeadlineMs, "listings");
+
+        return new SearchResponseDto(
+                userPage != null ? userPage.items() : List.of(),
+                listingPage != null ? listingPage.items() : List.of(),
+                userPage != null ? userPage.nextCursor() : null,
+                listingPage != null ? listingPage.nextCursor() : null,
+                userPage == null || listingPage == null
+        );
+    }
+
+    private Page<PublicProfileDto> searchUsers(List<String> tokens, boolean fuzzy, int limit, Hit after) {
+        List<Hit> hits = searchIndex.searchUsers(tokens, fuzzy, limit + 1, after);
+        List<Long> ids = ids(hits, limit);
+        List<PublicProfileDto> dtos = inRankOrder(ids, userRepository.findAllById(ids), User::getId).stream()
+                .map(this::mapToPublicProfileDto).collect(Collectors.toList());
+        return new Page<>(dtos, nextCursor(hits, limit));
+    }
+
+    private Page<ListingDto> searchListings(List<String> tokens, boolean fuzzy, int limit, Hit after) {
+        List<Hit> hits = searchIndex.searchListings(tokens, fuzzy, limit + 1, after);
+        List<Long> ids = ids(hits, limit);
+        List<ListingDto> dtos = inRankOrder(ids, listingRepository.findAllWithTeacherByIdIn(ids), Listing::getId).stream()
+                .map(this::mapToListingDto).collect(Collectors.toList());
+        return new Page<>(dtos, nextCursor(hits, limit));
+    }
 
-        List<PublicProfileDto> userDtos = users.stream().map(this::mapToPublicProfileDto).collect(Collectors.toList());
-        List<ListingDto> listingDtos = listings.stream().map(this::mapToListingDto).collect(Collectors.toList());
+    // Used only while the index is still being built after startup. Substring matches with no ranking
+    // or cursors, so the response is flagged partial and never cached past the rebuild.
+    private SearchResponseDto searchDatabase(SearchRequest request) {
+        List<PublicProfileDto> userDtos = !request.includes(Section.USERS) ? List.of()
+                : userRepository.findByNameContainingIgnoreCase(request.query()).stream()
+                .limit(clamp(request.usersLimit())).map(this::mapToPublicProfileDto).collect(Collectors.toList());
+        List<ListingDto> listingDtos = !request.includes(Section.LISTINGS) ? List.of()
+                : listingRepository.findByTitleContainingIgnoreCase(request.query()).stream()
+                .limit(clamp(request.listingsLimit())).map(this::mapToListingDto).collect(Collectors.toList());
+
+        return new SearchResponseDto(userDtos, listingDtos, null, null, true);
+    }
+
+    private <T> CompletableFuture<Page<T>> submit(Supplier<Page<T>> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, searchExecutor);
+        } catch (RuntimeException rejected) {
+            // Executor saturated: treat the section like a missed deadline
+            return CompletableFuture.failedFuture(rejected);
+        }
+    }
+
+    /** Waits until {@code deadlineMs} after {@code startedNanos}; returns null if the section did not make it. */
+    private <T> Page<T> await(CompletableFuture<Page<T>> future, long startedNanos, long deadlineMs, String section) {
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(deadlineMs) - (System.nanoTime() - startedNanos);
+        try {
+            return future.get(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Search section '{}' missed its {} ms deadline", section, deadlineMs);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            log.warn("Search section '{}' failed", section, e);
+            return null;
+        }
+    }
+
+    private static Hit decodeCursor(String cursor) {
+        try {
+            return SearchCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidOperationException("Invalid search cursor.");
+        }
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_RESULTS));
+    }
+
+    private static List<Long> ids(List<Hit> hits, int limit) {
+        return hits.stream().limit(limit).map(Hit::id).collect(Collectors.toList());
+    }
+
+    private static String nextCursor(List<Hit> hits, int limit) {
+        return hits.size() > limit ? SearchCursor.encode(hits.get(limit - 1)) : null;
+    }
 
-        return new SearchResponseDto(userDtos, listingDtos);
+    private static <T> List<T> inRankOrder(List<Long> rankedIds, List<T> loaded, Function<T, Long> idOf) {
+        Map<Long, T> byId = loaded.stream().collect(Collectors.toMap(idOf, Function.identity()));
+        return rankedIds.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
     }
 
     private PublicProfileDto mapToPublicProfileDto(User user) {
@@ -36,4 +182,4 @@ public class SearchService {
     private ListingDto mapToListingDto(Listing listing) {
         return new ListingDto(listing.getId(), listing.getTitle(), listing.getDescription(), listing.getTokenPrice(), listing.getTeacher().getId(), listing.getTeacher().getName());
     }
-}
\ No newline at end of file
+}
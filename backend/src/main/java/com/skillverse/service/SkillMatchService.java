@@ -0,0 +1,87 @@
+package com.skillverse.service;
+
+import com.skillverse.dto.MatchDtos.MatchDto;
+import com.skillverse.dto.UserDtos.PublicProfileDto;
+import com.skillverse.event.UserProfileChangedEvent;
+import com.skillverse.exception.ResourceNotFoundException;
+import com.skillverse.model.entity.User;
+import com.skillverse.repository.UserRepository;
+import com.skillverse.search.SkillMatchIndex;
+import com.skillverse.search.SkillMatchIndex.Match;
+import com.skillverse.search.SkillMatchIndex.Mode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Skill-swap matching: finds users who can teach what the caller wants and/or
+ * want what the caller teaches. The skill index is built at startup and kept
+ * current from profile events; only the returned page touches the database.
+ */
+@Service
+public class SkillMatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(SkillMatchService.class);
+    public static final int MAX_MATCHES = 50;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final UserRepository userRepository;
+    private final SkillMatchIndex index = new SkillMatchIndex();
+
+    public SkillMatchService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public List<MatchDto> findMatches(String userEmail, Mode mode, int limit) {
+        User me = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "email", userEmail));
+        List<Match> matches = index.match(me.getId(), mode, Math.max(1, Math.min(limit, MAX_MATCHES)));
+        if (matches.isEmpty()) return List.of();
+
+        Map<Long, User> users = userRepository.findAllById(matches.stream().map(Match::userId).toList()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return matches.stream()
+                .filter(m -> users.containsKey(m.userId()))
+                .map(m -> new MatchDto(mapToPublicProfileDto(users.get(m.userId())), m.canTeachYou(), m.wantsFromYou(), m.score()))
+                .collect(Collectors.toList());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long afterId = 0L;
+        int indexed = 0;
+        List<User> users;
+        do {
+            users = userRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            for (User user : users) {
+                if (index(user)) indexed++;
+                afterId = user.getId();
+            }
+        } while (users.size() == REBUILD_PAGE_SIZE);
+        log.info("Skill match index built for {} users", indexed);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        index(event.user());
+    }
+
+    private boolean index(User user) {
+        if (SearchIndexService.isSystemAccount(user)) return false;
+        index.put(user.getId(), user.getSkillsOffered(), user.getSkillsWanted());
+        return true;
+    }
+
+    private PublicProfileDto mapToPublicProfileDto(User user) {
+        return new PublicProfileDto(user.getId(), user.getName(), user.getBio(), user.getAvatarUrl(), user.getSkillsOffered(), user.getSkillsWanted());
+    }
+}
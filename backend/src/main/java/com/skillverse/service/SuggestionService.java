@@ -0,0 +1,99 @@
+package com.skillverse.service;
+
+import com.skillverse.dto.SearchDtos.SuggestResponseDto;
+import com.skillverse.dto.SearchDtos.SuggestionDto;
+import com.skillverse.event.ListingSavedEvent;
+import com.skillverse.event.UserProfileChangedEvent;
+import com.skillverse.model.entity.Listing;
+import com.skillverse.model.entity.User;
+import com.skillverse.repository.ListingRepository;
+import com.skillverse.repository.UserRepository;
+import com.skillverse.search.PrefixIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Typeahead completions for listing titles and user skills. Both tries are
+ * built at startup and kept current from listing and profile events, so a
+ * keystroke never reaches the database.
+ */
+@Service
+public class SuggestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestionService.class);
+    public static final int MAX_SUGGESTIONS = 10;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final ListingRepository listingRepository;
+    private final UserRepository userRepository;
+    private final PrefixIndex titles = new PrefixIndex(MAX_SUGGESTIONS);
+    private final PrefixIndex skills = new PrefixIndex(MAX_SUGGESTIONS);
+    // Last skills seen per user, so a profile edit can retract the ones removed
+    private final Map<Long, List<String>> skillsByUser = new ConcurrentHashMap<>();
+
+    public SuggestionService(ListingRepository listingRepository, UserRepository userRepository) {
+        this.listingRepository = listingRepository;
+        this.userRepository = userRepository;
+    }
+
+    public SuggestResponseDto suggest(String prefix, int limit) {
+        int n = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        return new SuggestResponseDto(
+                titles.complete(prefix, n).stream().map(c -> new SuggestionDto(c.text(), c.weight())).collect(Collectors.toList()),
+                skills.complete(prefix, n).stream().map(c -> new SuggestionDto(c.text(), c.weight())).collect(Collectors.toList())
+        );
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long afterId = 0L;
+        List<Listing> listings;
+        do {
+            listings = listingRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            for (Listing listing : listings) {
+                titles.add(listing.getTitle(), 1);
+                afterId = listing.getId();
+            }
+        } while (listings.size() == REBUILD_PAGE_SIZE);
+
+        afterId = 0L;
+        List<User> users;
+        do {
+            users = userRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            for (User user : users) {
+                updateSkills(user);
+                afterId = user.getId();
+            }
+        } while (users.size() == REBUILD_PAGE_SIZE);
+        log.info("Suggestion tries built for {} users", skillsByUser.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingSaved(ListingSavedEvent event) {
+        titles.add(event.listing().getTitle(), 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        updateSkills(event.user());
+    }
+
+    private void updateSkills(User user) {
+        List<String> current = new ArrayList<>(user.getSkillsOffered());
+        current.addAll(user.getSkillsWanted());
+        List<String> previous = skillsByUser.put(user.getId(), current);
+        if (previous != null) previous.forEach(skill -> skills.add(skill, -1));
+        current.forEach(skill -> skills.add(skill, 1));
+    }
+}
@@ -0,0 +1,171 @@
+package com.skillverse.service;
+
+import com.skillverse.dto.WalletDtos.MonthlyTotalDto;
+import com.skillverse.dto.WalletDtos.StatementEntryDto;
+import com.skillverse.dto.WalletDtos.WalletStatementResponse;
+import com.skillverse.exception.ResourceNotFoundException;
+import com.skillverse.model.entity.User;
+import com.skillverse.model.enums.TransactionType;
+import com.skillverse.repository.LedgerWatermarkRepository;
+import com.skillverse.repository.TransactionRepository;
+import com.skillverse.repository.UserRepository;
+import com.skillverse.repository.WalletDailyTotalRepository;
+import com.skillverse.repository.WalletDailyTotalRepository.MonthTotal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Read side of a user's wallet: a paginated statement of their ledger
+ * entries with running balances, and monthly totals.
+ *
+ * <p>Monthly totals come from {@code wallet_daily_totals}, which a scheduled
+ * job folds forward from the ledger like the balance snapshots (and with the
+ * same lag, for the same reason). Entries past the fold's watermark are added
+ * from the ledger at read time, so totals are exact without a full scan.
+ */
+@Service
+public class WalletService {
+
+    private static final Logger log = LoggerFactory.getLogger(WalletService.class);
+    static final String DAILY_TOTALS = "wallet-daily-totals";
+
+    private final UserRepository users;
+    private final TransactionRepository transactions;
+    private final WalletDailyTotalRepository dailyTotals;
+    private final LedgerWatermarkRepository watermarks;
+    private final LedgerService ledgerService;
+    private final ClusterService clusterService;
+    private final TransactionTemplate transaction;
+    private final long lagSeconds;
+    private final int maxPageSize;
+    private final Duration leaseTtl;
+
+    public WalletService(UserRepository users,
+                         TransactionRepository transactions,
+                         WalletDailyTotalRepository dailyTotals,
+                         LedgerWatermarkRepository watermarks,
+                         LedgerService ledgerService,
+                         ClusterService clusterService,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${ledger.snapshot.lag-seconds:300}") long lagSeconds,
+                         @Value("${wallet.page.max-size:100}") int maxPageSize,
+                         @Value("${scheduler.lease.ttl-seconds:600}") long leaseTtlSeconds) {
+        this.users = users;
+        this.transactions = transactions;
+        this.dailyTotals = dailyTotals;
+        this.watermarks = watermarks;
+        this.ledgerService = ledgerService;
+        this.clusterService = clusterService;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.lagSeconds = lagSeconds;
+        this.maxPageSize = maxPageSize;
+        this.leaseTtl = Duration.ofSeconds(leaseTtlSeconds);
+    }
+
+    /** One page of the user's ledger entries, newest first; pass the previous page's nextCursor to continue. */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public WalletStatementResponse getStatement(String email, Long cursor, int size) {
+        User user = findUser(email);
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        // Fetch one extra row to know whether another page exists
+        List<TransactionRepository.StatementRow> rows = transactions.findStatementPage(
+                user.getId(), cursor == null ? Long.MAX_VALUE : cursor, pageSize + 1);
+        List<StatementEntryDto> entries = rows.stream().limit(pageSize).map(row -> new StatementEntryDto(
+                row.getId(),
+                TransactionType.valueOf(row.getType()),
+                row.getAmount(),
+                row.getBalanceAfter(),
+                row.getDescription(),
+                row.getBookingId(),
+                row.getCreatedAt()
+        )).collect(Collectors.toList());
+        Long nextCursor = rows.size() > pageSize ? entries.get(pageSize - 1).id() : null;
+        return new WalletStatementResponse(ledgerService.balanceOf(user.getId()), entries, nextCursor);
+    }
+
+    /** Credits, debits and entry counts for each of the last {@code months} calendar months with activity, newest first. */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public List<MonthlyTotalDto> getMonthlyTotals(String email, int months) {
+        User user = findUser(email);
+        LocalDate from = YearMonth.now().minusMonths(Math.max(1, months) - 1L).atDay(1);
+        Long watermark = watermarks.findLastTransactionId(DAILY_TOTALS);
+
+        Map<YearMonth, MonthTotal[]> byMonth = new TreeMap<>();
+        for (MonthTotal total : dailyTotals.findMonthTotals(user.getId(), from)) {
+            add(byMonth, total);
+        }
+        for (MonthTotal total : transactions.findMonthTotalsSince(user.getId(), watermark == null ? 0L : watermark, from.atStartOfDay())) {
+            add(byMonth, total);
+        }
+
+        List<MonthlyTotalDto> result = new ArrayList<>(byMonth.size());
+        byMonth.forEach((month, parts) -> {
+            BigDecimal credits = BigDecimal.ZERO;
+            BigDecimal debits = BigDecimal.ZERO;
+            long entries = 0;
+            for (MonthTotal part : parts) {
+                if (part == null) continue;
+                credits = credits.add(part.getCredits());
+                debits = debits.add(part.getDebits());
+                entries += part.getEntries();
+            }
+            result.add(0, new MonthlyTotalDto(month.toString(), credits, debits, credits.subtract(debits), entries));
+        });
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createWatermark() {
+        transaction.executeWithoutResult(status -> watermarks.createIfAbsent(DAILY_TOTALS));
+    }
+
+    @Scheduled(fixedDelayString = "${wallet.rollup.interval-ms:300000}", initialDelayString = "${wallet.rollup.interval-ms:300000}")
+    public void rollDailyTotalsForward() {
+        try {
+            clusterService.runExclusively(DAILY_TOTALS, leaseTtl, () -> transaction.executeWithoutResult(status -> {
+                long after = watermarks.findLastTransactionId(DAILY_TOTALS);
+                long through = transactions.findMaxPostedIdBefore(LocalDateTime.now().minusSeconds(lagSeconds));
+                if (through <= after) return;
+                int rows = dailyTotals.foldForward(after, through);
+                if (watermarks.advance(DAILY_TOTALS, after, through) == 0) {
+                    // Another fold of the same range got there first; roll this one back
+                    throw new OptimisticLockingFailureException("Daily wallet totals were folded concurrently past " + after);
+                }
+                log.info("Wallet daily totals folded through entry {} ({} account-days)", through, rows);
+            }));
+        } catch (Exception e) {
+            log.error("Error folding wallet daily totals", e);
+        }
+    }
+
+    // A month's total is at most two parts: folded days, and entries after the watermark
+    private static void add(Map<YearMonth, MonthTotal[]> byMonth, MonthTotal total) {
+        MonthTotal[] parts = byMonth.computeIfAbsent(YearMonth.of(total.getCalendarYear(), total.getCalendarMonth()), m -> new MonthTotal[2]);
+        parts[parts[0] == null ? 0 : 1] = total;
+    }
+
+    private User findUser(String email) {
+        return users.findByEmail(email).orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
+    }
+}
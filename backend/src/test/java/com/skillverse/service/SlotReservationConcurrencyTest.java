@@ -0,0 +1,150 @@
+package com.skillverse.service;
+
+import com.skillverse.model.entity.AvailabilitySlot;
+import com.skillverse.model.entity.User;
+import com.skillverse.repository.AvailabilitySlotRepository;
+import com.skillverse.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stress test and contention benchmark for {@link AvailabilityService#tryReserve}:
+ * many bookers released at the same instant against the same slots, each in its
+ * own transaction, must produce exactly one winner per slot.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Import(AvailabilityService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SlotReservationConcurrencyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotReservationConcurrencyTest.class);
+    private static final int BOOKERS = 500;
+
+    @Autowired private AvailabilityService availabilityService;
+    @Autowired private AvailabilitySlotRepository slots;
+    @Autowired private UserRepository users;
+
+    private User teacher;
+
+    @BeforeEach
+    void createTeacher() {
+        teacher = users.save(new User("Launch Teacher", "teacher-" + UUID.randomUUID() + "@example.com", "secret"));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        slots.deleteAll();
+        users.delete(teacher);
+    }
+
+    @Test
+    void exactlyOneOf500ConcurrentBookersWinsASlot() throws Exception {
+        Long slotId = openSlot(LocalDateTime.now().plusDays(1)).getId();
+
+        List<Boolean> outcomes = race(BOOKERS, booker -> slotId);
+
+        assertEquals(1, outcomes.stream().filter(won -> won).count());
+        assertTrue(slots.findById(slotId).orElseThrow().isReserved());
+    }
+
+    @Test
+    void pastSlotCannotBeReserved() {
+        Long slotId = openSlot(LocalDateTime.now().minusDays(1)).getId();
+
+        assertFalse(availabilityService.tryReserve(slotId));
+        assertFalse(slots.findById(slotId).orElseThrow().isReserved());
+    }
+
+    @Test
+    void throughputUnder500ConcurrentBookers() throws Exception {
+        int rounds = 5;
+        int slotsPerRound = 50;
+        long attempts = 0;
+        long elapsedNanos = 0;
+
+        for (int round = 0; round < rounds; round++) {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < slotsPerRound; i++) {
+                ids.add(openSlot(LocalDateTime.now().plusDays(1).plusHours(round * slotsPerRound + i)).getId());
+            }
+
+            long started = System.nanoTime();
+            List<Boolean> outcomes = race(BOOKERS, booker -> ids.get(booker % slotsPerRound));
+            elapsedNanos += System.nanoTime() - started;
+            attempts += outcomes.size();
+
+            // Booker b targeted slot b % slotsPerRound; each slot must have exactly one winner
+            int[] winners = new int[slotsPerRound];
+            for (int booker = 0; booker < outcomes.size(); booker++) {
+                if (outcomes.get(booker)) winners[booker % slotsPerRound]++;
+            }
+            for (int slot = 0; slot < slotsPerRound; slot++) {
+                assertEquals(1, winners[slot], "winners for slot " + ids.get(slot));
+            }
+        }
+
+        double seconds = elapsedNanos / 1e9;
+        log.info("Slot reservation: {} attempts by {} concurrent bookers over {} slots in {} s ({} attempts/s)",
+                attempts, BOOKERS, rounds * slotsPerRound, String.format("%.3f", seconds), Math.round(attempts / seconds));
+    }
+
+    private AvailabilitySlot openSlot(LocalDateTime start) {
+        AvailabilitySlot slot = new AvailabilitySlot();
+        slot.setTeacher(teacher);
+        slot.setStartTime(start);
+        slot.setEndTime(start.plusHours(1));
+        slot.setTimeZone("UTC");
+        return slots.save(slot);
+    }
+
+    // Starts one thread per booker, releases them together, and returns each booker's outcome in order
+    private List<Boolean> race(int bookers, IntFunction<Long> slotForBooker) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(bookers);
+        try {
+            CountDownLatch ready = new CountDownLatch(bookers);
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int booker = 0; booker < bookers; booker++) {
+                Long slotId = slotForBooker.apply(booker);
+                futures.add(pool.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    return availabilityService.tryReserve(slotId);
+                }));
+            }
+            ready.await();
+            go.countDown();
+
+            List<Boolean> outcomes = new ArrayList<>();
+            for (Future<Boolean> future : futures) outcomes.add(future.get());
+            return outcomes;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
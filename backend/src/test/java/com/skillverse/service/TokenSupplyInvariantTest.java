@@ -0,0 +1,306 @@
+package com.skillverse.service;
+
+import com.skillverse.config.EscrowConfig;
+import com.skillverse.exception.ConcurrentUpdateException;
+import com.skillverse.exception.InsufficientFundsException;
+import com.skillverse.exception.InvalidOperationException;
+import com.skillverse.model.entity.Booking;
+import com.skillverse.model.entity.EscrowHold;
+import com.skillverse.model.entity.Listing;
+import com.skillverse.model.entity.Transaction;
+import com.skillverse.model.entity.User;
+import com.skillverse.model.enums.BookingStatus;
+import com.skillverse.model.enums.EscrowHoldStatus;
+import com.skillverse.repository.BalanceSnapshotRepository;
+import com.skillverse.repository.BookingRepository;
+import com.skillverse.repository.EscrowHoldRepository;
+import com.skillverse.repository.ListingRepository;
+import com.skillverse.repository.TransactionRepository;
+import com.skillverse.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Invariant stress suite for the booking money paths: thousands of accepts,
+ * completions, disputes and auto-release runs race each other over a small set
+ * of learners, and afterwards no tokens may have been created or destroyed,
+ * no account may be overdrawn, and escrow must hold exactly what the open
+ * bookings say it should. Balance snapshots are rolled forward throughout, and
+ * every balance must still equal the opening balance plus the raw ledger sum.
+ */
+@DataJpaTest(properties = {
+        // PostgreSQL mode for the ledger's and the release pipeline's native statements
+        "spring.datasource.url=jdbc:h2:mem:token-supply;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "money.retry.max-attempts=20",
+        "money.retry.initial-backoff-ms=2",
+        "money.retry.max-backoff-ms=50",
+        "escrow.release.chunk-size=25",
+        // Snapshots roll forward while the money moves; entries stay in the tail this long first
+        "ledger.snapshot.lag-seconds=" + TokenSupplyInvariantTest.SNAPSHOT_LAG_SECONDS
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({BookingService.class, EscrowService.class, LedgerService.class, NotificationService.class, OutboxService.class,
+        AvailabilityService.class, ConcurrencyRetry.class, ClusterService.class, EscrowConfig.class,
+        TokenSupplyInvariantTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TokenSupplyInvariantTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenSupplyInvariantTest.class);
+
+    private static final int LEARNERS = 40;
+    private static final int TEACHERS = 10;
+    private static final int BOOKINGS_PER_LEARNER = 60;
+    private static final int THREADS = 32;
+    private static final BigDecimal OPENING_BALANCE = BigDecimal.valueOf(100);
+    static final int SNAPSHOT_LAG_SECONDS = 2;
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired private BookingService bookingService;
+    @Autowired private EscrowService escrowService;
+    @Autowired private LedgerService ledgerService;
+    @Autowired private UserRepository users;
+    @Autowired private ListingRepository listings;
+    @Autowired private BookingRepository bookings;
+    @Autowired private EscrowHoldRepository holds;
+    @Autowired private TransactionRepository transactions;
+    @Autowired private BalanceSnapshotRepository snapshots;
+    @Autowired private MeterRegistry meterRegistry;
+
+    @Test
+    void totalSupplyIsConstantUnderConcurrentMoneyMovement() throws Exception {
+        ledgerService.createWatermark();
+        List<User> accounts = new ArrayList<>();
+        accounts.add(openAccount("Escrow", EscrowService.ESCROW_EMAIL, BigDecimal.ZERO));
+        List<Listing> catalog = new ArrayList<>();
+        for (int t = 0; t < TEACHERS; t++) {
+            User teacher = openAccount("Teacher " + t, "teacher" + t + "@example.com", OPENING_BALANCE);
+            accounts.add(teacher);
+            catalog.add(listing(teacher, BigDecimal.valueOf(5 + t)));
+        }
+        List<User> learners = new ArrayList<>();
+        for (int l = 0; l < LEARNERS; l++) {
+            User learner = openAccount("Learner " + l, "learner" + l + "@example.com", OPENING_BALANCE);
+            learners.add(learner);
+            accounts.add(learner);
+        }
+        BigDecimal supply = totalSupply(accounts);
+
+        // Every learner asks for far more sessions than they can pay for; all are due for auto-release
+        List<Booking> requested = new ArrayList<>();
+        for (User learner : learners) {
+            for (int b = 0; b < BOOKINGS_PER_LEARNER; b++) {
+                requested.add(pendingBooking(learner, catalog.get(ThreadLocalRandom.current().nextInt(catalog.size()))));
+            }
+        }
+        Collections.shuffle(requested);
+
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger gaveUp = new AtomicInteger();
+        AtomicInteger autoReleased = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        Thread releaser = new Thread(() -> {
+            while (running.get()) autoReleased.addAndGet(escrowService.releaseDue());
+        }, "auto-release");
+        Thread snapshotter = new Thread(() -> {
+            while (running.get()) {
+                ledgerService.rollSnapshotsForward();
+                sleep(100);
+            }
+        }, "ledger-snapshots");
+        long started = System.nanoTime();
+        try {
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (Booking booking : requested) {
+                futures.add(pool.submit(() -> {
+                    go.await();
+                    exercise(booking, accepted, rejected, gaveUp);
+                    return null;
+                }));
+            }
+            releaser.start();
+            snapshotter.start();
+            go.countDown();
+            for (Future<?> future : futures) future.get(5, TimeUnit.MINUTES);
+        } finally {
+            running.set(false);
+            releaser.join();
+            snapshotter.join();
+            pool.shutdownNow();
+        }
+        autoReleased.addAndGet(escrowService.releaseDue());
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        double retries = meterRegistry.find("money.retry.retries").counters().stream().mapToDouble(Counter::count).sum();
+        log.info("Money paths: {} bookings in {} s; {} accepted, {} rejected for funds, {} auto-released, {} retried, {} gave up after retries",
+                requested.size(), String.format("%.2f", seconds), accepted.get(), rejected.get(), autoReleased.get(), (long) retries, gaveUp.get());
+
+        assertEquals(0, supply.compareTo(totalSupply(accounts)), "total token supply");
+        // Fold the tail too, then every account's balance comes from a rolled snapshot
+        sleep(TimeUnit.SECONDS.toMillis(SNAPSHOT_LAG_SECONDS) + 100);
+        ledgerService.rollSnapshotsForward();
+        assertTrue(snapshots.count() > accounts.size(), "snapshots rolled forward past the opening ones");
+        assertBalancesMatchLedger(accounts);
+        assertEquals(0, supply.compareTo(totalSupply(accounts)), "total token supply after the last roll");
+        for (User account : accounts) {
+            BigDecimal balance = ledgerService.balanceOf(account.getId());
+            assertTrue(balance.signum() >= 0, account.getEmail() + " overdrawn: " + balance);
+        }
+        assertEscrowMatchesOpenBookings();
+        assertEachBookingPaidAtMostOnce();
+        assertTrue(accepted.get() > 0 && rejected.get() > 0, "both outcomes exercised");
+    }
+
+    // One booking's lifecycle as a client would drive it; losing a race is an expected outcome
+    private void exercise(Booking booking, AtomicInteger accepted, AtomicInteger rejected, AtomicInteger gaveUp) {
+        String teacherEmail = booking.getListing().getTeacher().getEmail();
+        String learnerEmail = booking.getLearner().getEmail();
+        try {
+            bookingService.acceptBooking(booking.getId(), teacherEmail);
+            accepted.incrementAndGet();
+            int next = ThreadLocalRandom.current().nextInt(10);
+            if (next < 6) {
+                bookingService.completeBooking(booking.getId(), next % 2 == 0 ? learnerEmail : teacherEmail);
+            } else if (next < 7) {
+                bookingService.openDispute(booking.getId(), learnerEmail);
+            }
+            // otherwise left for the auto-release
+        } catch (InsufficientFundsException e) {
+            rejected.incrementAndGet();
+        } catch (InvalidOperationException e) {
+            // auto-released (or disputed) before this client got there
+        } catch (ConcurrentUpdateException e) {
+            gaveUp.incrementAndGet();
+        }
+    }
+
+    private void assertEscrowMatchesOpenBookings() {
+        List<Booking> all = bookings.findAll();
+        Map<Long, EscrowHold> holdByBooking = holds.findAll().stream()
+                .collect(Collectors.toMap(h -> h.getBooking().getId(), Function.identity()));
+        for (Booking booking : all) {
+            EscrowHold hold = holdByBooking.get(booking.getId());
+            switch (booking.getStatus()) {
+                case CONFIRMED, IN_DISPUTE -> assertEquals(EscrowHoldStatus.HELD, hold.getStatus(), "hold of " + booking.getId());
+                case COMPLETED -> assertEquals(EscrowHoldStatus.RELEASED, hold.getStatus(), "hold of " + booking.getId());
+                default -> assertEquals(null, hold, "hold of unaccepted booking " + booking.getId());
+            }
+        }
+        BigDecimal escrow = ledgerService.balanceOf(users.findByEmail(EscrowService.ESCROW_EMAIL).orElseThrow().getId());
+        BigDecimal open = bookings.sumPriceByStatusIn(EnumSet.of(BookingStatus.CONFIRMED, BookingStatus.IN_DISPUTE));
+        assertEquals(0, escrow.compareTo(open), "escrow " + escrow + " vs open bookings " + open);
+        assertEquals(0, escrow.compareTo(holds.findHeldTotal().getAmount()), "escrow vs held total");
+    }
+
+    // Snapshot plus tail, one account or many at once, against the opening balance plus every posted entry
+    private void assertBalancesMatchLedger(List<User> accounts) {
+        Map<Long, BigDecimal> balances = ledgerService.balancesOf(accounts.stream().map(User::getId).toList());
+        for (User account : accounts) {
+            BigDecimal raw = account.getTokenBalance().add(transactions.sumSince(account.getId(), 0L));
+            assertEquals(0, raw.compareTo(ledgerService.balanceOf(account.getId())), "balance of " + account.getEmail());
+            assertEquals(0, raw.compareTo(balances.get(account.getId())), "batched balance of " + account.getEmail());
+        }
+    }
+
+    private void assertEachBookingPaidAtMostOnce() {
+        Map<Long, Long> postingsPerBooking = transactions.findAll().stream()
+                .filter(t -> t.getBooking() != null)
+                .collect(Collectors.groupingBy(t -> t.getBooking().getId(),
+                        Collectors.mapping(Transaction::getPostingId, Collectors.collectingAndThen(Collectors.toSet(), s -> (long) s.size()))));
+        for (Booking booking : bookings.findAll()) {
+            long expected = switch (booking.getStatus()) {
+                case CONFIRMED, IN_DISPUTE -> 1; // hold
+                case COMPLETED -> 2;             // hold and release
+                default -> 0;
+            };
+            assertEquals(expected, postingsPerBooking.getOrDefault(booking.getId(), 0L), "postings for booking " + booking.getId());
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private BigDecimal totalSupply(List<User> accounts) {
+        return accounts.stream().map(u -> ledgerService.balanceOf(u.getId())).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private User openAccount(String name, String email, BigDecimal opening) {
+        User user = new User(name, email, "secret");
+        user.setTokenBalance(opening);
+        User saved = users.save(user);
+        ledgerService.openAccount(saved);
+        return saved;
+    }
+
+    private Listing listing(User teacher, BigDecimal price) {
+        Listing listing = new Listing();
+        listing.setTeacher(teacher);
+        listing.setTitle("Session with " + teacher.getName());
+        listing.setFormat("1:1 Mentorship");
+        listing.setTokenPrice(price);
+        return listings.save(listing);
+    }
+
+    private Booking pendingBooking(User learner, Listing listing) {
+        Booking booking = new Booking();
+        booking.setLearner(learner);
+        booking.setListing(listing);
+        booking.setStatus(BookingStatus.PENDING);
+        booking.setBookingTime(LocalDateTime.now().minusDays(3));
+        return bookings.save(booking);
+    }
+}